@@ -1,55 +1,67 @@
 package ru.practicum.shareit.booking;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 @Slf4j
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache itemCache;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory,
+                         @Qualifier("itemResponseCache") ResponseCache itemCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.itemCache = itemCache;
     }
 
-    public ResponseEntity<Object> getBookings(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getBookings(long userId, String state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        log.debug("Отправка запроса на получение бронирований: userId={}, state={}, from={}, size={}", userId, state, from, size);
-        ResponseEntity<Object> response = get("?state={state}&from={from}&size={size}", userId, parameters);
-        log.debug("Ответ от сервера: статус={}, тело={}", response.getStatusCode(), response.getBody());
+        ));
+        log.debug("Отправка запроса на получение бронирований: userId={}, state={}, from={}, size={}, cursor={}", userId, state, from, size, cursor);
+        ResponseEntity<Object> response = get(withCursor("?state={state}&from={from}&size={size}", parameters, cursor), userId, parameters);
+        log.debug("Ответ от сервера: статус={}", response.getStatusCode());
         return response;
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long ownerId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getOwnerBookings(long ownerId, String state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        log.debug("Отправка запроса на получение бронирований владельца: ownerId={}, state={}, from={}, size={}", ownerId, state, from, size);
-        ResponseEntity<Object> response = get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
-        log.debug("Ответ от сервера: статус={}, тело={}", response.getStatusCode(), response.getBody());
+        ));
+        log.debug("Отправка запроса на получение бронирований владельца: ownerId={}, state={}, from={}, size={}, cursor={}", ownerId, state, from, size, cursor);
+        ResponseEntity<Object> response = get(withCursor("/owner?state={state}&from={from}&size={size}", parameters, cursor), ownerId, parameters);
+        log.debug("Ответ от сервера: статус={}", response.getStatusCode());
         return response;
     }
 
@@ -63,6 +75,24 @@ public class BookingClient extends BaseClient {
 
     public ResponseEntity<Object> updateBooking(long userId, Long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        ResponseEntity<Object> response = patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        // подтверждение меняет последнее и следующее бронирования в ответах вещей, а id вещи шлюзу не известен
+        itemCache.invalidateAll();
+        return response;
+    }
+
+    public ResponseEntity<Object> updateBookings(long userId, List<BookingDecisionDto> decisions) {
+        ResponseEntity<Object> response = patch("/batch", userId, decisions);
+        itemCache.invalidateAll();
+        return response;
+    }
+
+    public ResponseEntity<Object> getItemAvailability(long userId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "start", start,
+                "end", end
+        );
+        return get("/availability?itemId={itemId}&start={start}&end={end}", userId, parameters);
     }
 }
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    private final ResponseCache itemCache;
+
+    @Autowired
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder, ClientHttpConnector connector,
+                                 @Qualifier("itemResponseCache") ResponseCache itemCache) {
+        super(
+                builder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build()
+        );
+        this.itemCache = itemCache;
+    }
+
+    public Mono<ResponseEntity<Object>> getBookings(long userId, String state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state,
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("?state={state}&from={from}&size={size}", parameters, cursor), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getOwnerBookings(long ownerId, String state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state,
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", parameters, cursor), ownerId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addBooking(long userId, BookingDto requestDto) {
+        return post("", userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBooking(long userId, Long bookingId, boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        // подтверждение меняет последнее и следующее бронирования в ответах вещей, а id вещи шлюзу не известен
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null)
+                .doOnSuccess(response -> itemCache.invalidateAll());
+    }
+
+    public Mono<ResponseEntity<Object>> updateBookings(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions)
+                .doOnSuccess(response -> itemCache.invalidateAll());
+    }
+
+    public Mono<ResponseEntity<Object>> getItemAvailability(long userId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "start", start,
+                "end", end
+        );
+        return get("/availability?itemId={itemId}&start={start}&end={end}", userId, parameters);
+    }
+}
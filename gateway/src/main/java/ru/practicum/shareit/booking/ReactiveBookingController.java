@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static ru.practicum.shareit.util.Constants.CONST_SHARED_USER_ID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveBookingController {
+
+	private final ReactiveBookingClient bookingClient;
+
+	@PostMapping
+	public Mono<ResponseEntity<Object>> addBooking(@RequestHeader(CONST_SHARED_USER_ID) long userId,
+											       @Valid @RequestBody BookingDto bookingDto) {
+		log.debug("Получен запрос на добавление бронирования от пользователя с id={}, данными: {}", userId, bookingDto);
+		return bookingClient.addBooking(userId, bookingDto);
+	}
+
+	@PatchMapping("/{bookingId}")
+	public Mono<ResponseEntity<Object>> updateBooking(@PathVariable Long bookingId,
+												      @RequestHeader(CONST_SHARED_USER_ID) long userId,
+												      @RequestParam boolean approved) {
+		log.debug("Получен запрос на обновление статуса бронирования с id={} от пользователя с id={}, одобрено: {}", bookingId, userId, approved);
+		return bookingClient.updateBooking(userId, bookingId, approved);
+	}
+
+	@PatchMapping("/batch")
+	public Mono<ResponseEntity<Object>> updateBookings(@RequestHeader(CONST_SHARED_USER_ID) long userId,
+												       @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions) {
+		log.debug("Получен запрос на пакетное обновление статусов бронирований от пользователя с id={}, решения: {}", userId, decisions);
+		return bookingClient.updateBookings(userId, decisions);
+	}
+
+	@GetMapping("/{bookingId}")
+	public Mono<ResponseEntity<Object>> getBooking(@PathVariable Long bookingId,
+											       @RequestHeader(CONST_SHARED_USER_ID) long userId) {
+		log.debug("Получен запрос на получение бронирования с id={} от пользователя с id={}", bookingId, userId);
+		return bookingClient.getBooking(userId, bookingId);
+	}
+
+	@GetMapping
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader(CONST_SHARED_USER_ID) long userId,
+											        @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+											        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+											        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+											        @RequestParam(required = false) String cursor) {
+		log.debug("Получен запрос на получение всех бронирований пользователя с id={} со статусом {}, с параметрами from={}, size={}, cursor={}", userId, stateParam, from, size, cursor);
+		return bookingClient.getBookings(userId, stateParam, from, size, cursor);
+	}
+
+	@GetMapping("/owner")
+	public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader(CONST_SHARED_USER_ID) long ownerId,
+												         @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+												         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+												         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+												         @RequestParam(required = false) String cursor) {
+		log.debug("Получен запрос на получение всех бронирований владельца с id={} со статусом {}, с параметрами from={}, size={}, cursor={}", ownerId, stateParam, from, size, cursor);
+		return bookingClient.getOwnerBookings(ownerId, stateParam, from, size, cursor);
+	}
+
+	@GetMapping("/availability")
+	public Mono<ResponseEntity<Object>> getItemAvailability(@RequestHeader(CONST_SHARED_USER_ID) long userId,
+													        @Positive @RequestParam Long itemId,
+													        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+													        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+		log.debug("Получен запрос на проверку доступности вещи с id={} от пользователя с id={} на период start={}, end={}", itemId, userId, start, end);
+		return bookingClient.getItemAvailability(userId, itemId, start, end);
+	}
+}
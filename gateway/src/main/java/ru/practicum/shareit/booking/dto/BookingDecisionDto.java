@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+    @NotNull(message = "Идентификатор бронирования не может быть пустым")
+    @Positive(message = "Идентификатор бронирования должен быть положительным")
+    private Long bookingId;
+    @NotNull(message = "Решение по бронированию не может быть пустым")
+    private Boolean approved;
+}
@@ -1,7 +1,17 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
@@ -9,16 +19,31 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 
 @Slf4j
 public class BaseClient {
+    /**
+     * Заголовки соединения между шлюзом и сервером, а не ответа: их выставляет сервер шлюза.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length", "date", "server");
+
+    /**
+     * Счетчик изменений через шлюз, общий для всех клиентов: запись одного ресурса меняет чтения других
+     * (подтверждение бронирования — вещь, изменение пользователя — комментарии к вещам).
+     */
+    private static final AtomicLong WRITE_GENERATION = new AtomicLong();
+
     protected final RestTemplate rest;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlightReads = new ConcurrentHashMap<>();
 
     public BaseClient(RestTemplate rest) {
         this.rest = rest;
+        this.rest.setErrorHandler(new PassthroughErrorHandler());
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -81,20 +106,62 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return path;
+        }
+        parameters.put("cursor", cursor);
+        return path + "&cursor={cursor}";
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = parameters != null ? rest.getUriTemplateHandler().expand(path, parameters) : rest.getUriTemplateHandler().expand(path);
+        if (method == HttpMethod.GET) {
+            return coalesce(uri + "#" + userId + "#" + WRITE_GENERATION.get(), () -> send(method, uri, userId, body));
+        }
+        // счетчик растет и до, и после записи: чтение, начатое во время записи или после нее,
+        // не присоединится к чтению, которое могло получить ответ сервера до записи
+        WRITE_GENERATION.incrementAndGet();
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            return send(method, uri, userId, body);
+        } finally {
+            WRITE_GENERATION.incrementAndGet();
+        }
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, URI uri, Long userId, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return prepareGatewayResponse(rest.exchange(uri, method, requestEntity, byte[].class));
+    }
+
+    /**
+     * Одинаковые GET-запросы, пришедшие, пока такой же запрос уже ждет ответа сервера, на сервер не уходят,
+     * а получают ответ или исключение этого запроса. Ключ включает счетчик записей, поэтому чтение после
+     * любого изменения через шлюз не получит ответ запроса, отправленного до него.
+     */
+    private ResponseEntity<Object> coalesce(String key, Supplier<ResponseEntity<Object>> request) {
+        CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> inFlight = inFlightReads.putIfAbsent(key, call);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw (RuntimeException) e.getCause();
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        try {
+            ResponseEntity<Object> response = request.get();
+            call.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightReads.remove(key, call);
+        }
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -107,21 +174,45 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    /**
+     * Отдает клиенту ответ сервера как есть: тело байтами без разбора JSON, статус и сквозные заголовки.
+     * Успешные ответы и ошибки проходят одним путем.
+     */
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCodeValue())
+                .headers(endToEndHeaders(response.getHeaders()));
 
-        if (response.hasBody()) {
-            log.error("Ошибка в ответе сервера: статус={}, тело={}", response.getStatusCode(), response.getBody());
-            return responseBuilder.body(response.getBody());
-        } else {
-            log.error("Ошибка в ответе сервера: статус={}", response.getStatusCode());
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            if (response.hasBody()) {
+                log.error("Ошибка в ответе сервера: статус={}, тело={}", response.getStatusCode(), new String(response.getBody(), StandardCharsets.UTF_8));
+            } else {
+                log.error("Ошибка в ответе сервера: статус={}", response.getStatusCode());
+            }
         }
 
-        return responseBuilder.build();
+        return response.hasBody() ? responseBuilder.body(response.getBody()) : responseBuilder.build();
     }
 
+    /**
+     * Заголовки ответа сервера, которые передаются клиенту шлюза: все, кроме заголовков соединения.
+     */
+    static HttpHeaders endToEndHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, values);
+            }
+        });
+        return headers;
+    }
+
+    /**
+     * Ошибки сервера не превращаются в исключения RestTemplate, а передаются клиенту тем же путем, что и успешные ответы.
+     */
+    private static class PassthroughErrorHandler extends DefaultResponseErrorHandler {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Реактивный вариант шлюза, включается свойством spring.main.web-application-type=reactive.
+ * Запросы обслуживает Netty на нескольких потоках цикла событий, а к серверу они уходят через WebClient
+ * с общим пулом соединений, поэтому число одновременных запросов не ограничено числом потоков.
+ * Таймауты соединения, ответа и ожидания свободного соединения те же, что у блокирующего шлюза (shareit-server.http.*),
+ * а очередь ожидающих соединения ограничена: при зависшем сервере запросы получают ошибку, а не копятся без конца.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGatewayConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector shareitServerConnector(@Value("${shareit-server.reactive.max-connections:1000}") int maxConnections,
+                                                             @Value("${shareit-server.reactive.max-pending-acquires:2000}") int maxPendingAcquires,
+                                                             @Value("${shareit-server.reactive.max-idle-time-seconds:30}") long maxIdleTimeSeconds,
+                                                             @Value("${shareit-server.http.connect-timeout-millis:2000}") int connectTimeoutMillis,
+                                                             @Value("${shareit-server.http.read-timeout-millis:10000}") long readTimeoutMillis,
+                                                             @Value("${shareit-server.http.pool-timeout-millis:2000}") long poolTimeoutMillis) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPendingAcquires)
+                .pendingAcquireTimeout(Duration.ofMillis(poolTimeoutMillis))
+                .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(readTimeoutMillis));
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
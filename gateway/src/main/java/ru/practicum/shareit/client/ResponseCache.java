@@ -0,0 +1,172 @@
+package ru.practicum.shareit.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import reactor.core.publisher.Mono;
+
+/**
+ * Кеш успешных ответов сервера для чтений шлюза. Хранит не больше maxSize ответов, вытесняя давно не читанные,
+ * и отдает ответ не дольше ttl после загрузки. Записи, которые меняют закешированные данные, сбрасывают их через
+ * invalidate; ответ, загрузка которого началась до сброса, в кеш уже не попадает.
+ * Счетчики попаданий и промахов публикуются в JMX.
+ */
+@ManagedResource
+public class ResponseCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long generation;
+
+    public ResponseCache(boolean enabled, int maxSize, Duration ttl) {
+        this(enabled, maxSize, ttl, Clock.systemUTC());
+    }
+
+    ResponseCache(boolean enabled, int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Размер и время жизни кеша ответов должны быть положительными");
+        }
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ResponseCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public ResponseEntity<Object> get(String key, Supplier<ResponseEntity<Object>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Lookup lookup = lookup(key);
+        if (lookup.response != null) {
+            return lookup.response;
+        }
+        ResponseEntity<Object> response = loader.get();
+        store(key, response, lookup.generation);
+        return response;
+    }
+
+    /**
+     * Вариант {@link #get(String, Supplier)} для реактивного шлюза: loader выполняется только при промахе.
+     */
+    public Mono<ResponseEntity<Object>> get(String key, Mono<ResponseEntity<Object>> loader) {
+        if (!enabled) {
+            return loader;
+        }
+        return Mono.defer(() -> {
+            Lookup lookup = lookup(key);
+            if (lookup.response != null) {
+                return Mono.just(lookup.response);
+            }
+            return loader.doOnNext(response -> store(key, response, lookup.generation));
+        });
+    }
+
+    private synchronized Lookup lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtMillis > clock.millis()) {
+            hits.incrementAndGet();
+            return new Lookup(entry.response, generation);
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.incrementAndGet();
+        return new Lookup(null, generation);
+    }
+
+    private void store(String key, ResponseEntity<Object> response, long loadGeneration) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry(response, clock.millis() + ttlMillis));
+                }
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает ответы, ключ которых начинается с keyPrefix.
+     */
+    public synchronized void invalidate(String keyPrefix) {
+        generation++;
+        entries.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    @ManagedOperation(description = "Сбросить все ответы")
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    @ManagedAttribute(description = "Кеш включен")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @ManagedAttribute(description = "Ответы, отданные из кеша")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Ответы, загруженные с сервера")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagedAttribute(description = "Ответы, вытесненные при переполнении")
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @ManagedAttribute(description = "Ответов в кеше")
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final ResponseEntity<Object> response;
+        private final long expiresAtMillis;
+
+        private Entry(ResponseEntity<Object> response, long expiresAtMillis) {
+            this.response = response;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    /**
+     * Результат поиска в кеше: найденный ответ или null и поколение сбросов на момент поиска.
+     */
+    private static final class Lookup {
+        private final ResponseEntity<Object> response;
+        private final long generation;
+
+        private Lookup(ResponseEntity<Object> response, long generation) {
+            this.response = response;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кеши ответов шлюза, по одному на эндпоинт: GET /items/{id} и GET /items/search.
+ * Используются и блокирующими, и реактивными клиентами.
+ * Каждый включается, ограничивается по размеру и времени жизни своими свойствами shareit-server.cache.*.
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache itemResponseCache(@Value("${shareit-server.cache.items.enabled:true}") boolean enabled,
+                                           @Value("${shareit-server.cache.items.max-size:10000}") int maxSize,
+                                           @Value("${shareit-server.cache.items.ttl-seconds:30}") long ttlSeconds) {
+        return new ResponseCache(enabled, maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Bean
+    public ResponseCache searchResponseCache(@Value("${shareit-server.cache.search.enabled:true}") boolean enabled,
+                                             @Value("${shareit-server.cache.search.max-size:1000}") int maxSize,
+                                             @Value("${shareit-server.cache.search.ttl-seconds:30}") long ttlSeconds) {
+        return new ResponseCache(enabled, maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+}
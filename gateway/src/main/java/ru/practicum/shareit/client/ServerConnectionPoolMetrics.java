@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Состояние общего пула соединений с сервером, публикуется в JMX как ru.practicum.shareit:type=ServerConnectionPool.
+ * Растущее число ожидающих запросов при занятых leased = max означает, что пул мал для текущей нагрузки.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ManagedResource(objectName = "ru.practicum.shareit:type=ServerConnectionPool")
+public class ServerConnectionPoolMetrics {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    public ServerConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @ManagedAttribute(description = "Соединения, занятые запросами")
+    public int getLeased() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    @ManagedAttribute(description = "Свободные соединения, открытые для повторного использования")
+    public int getAvailable() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    @ManagedAttribute(description = "Запросы, ожидающие свободного соединения")
+    public int getPending() {
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    @ManagedAttribute(description = "Максимальное число соединений")
+    public int getMax() {
+        return connectionManager.getTotalStats().getMax();
+    }
+
+    @ManagedAttribute(description = "Максимальное число соединений с одним адресом")
+    public int getMaxPerRoute() {
+        return connectionManager.getDefaultMaxPerRoute();
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий пул соединений блокирующего шлюза с сервером. Все клиенты строят RestTemplate на одной фабрике запросов,
+ * поэтому соединения переиспользуются между клиентами, а лимиты, таймауты и время жизни соединений
+ * задаются в одном месте свойствами shareit-server.http.*.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServerHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(@Value("${shareit-server.http.max-total:200}") int maxTotal,
+                                                                             @Value("${shareit-server.http.max-per-route:100}") int maxPerRoute,
+                                                                             @Value("${shareit-server.http.validate-after-inactivity-millis:2000}") int validateAfterInactivityMillis) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMillis);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                       @Value("${shareit-server.http.connect-timeout-millis:2000}") int connectTimeoutMillis,
+                                                       @Value("${shareit-server.http.read-timeout-millis:10000}") int readTimeoutMillis,
+                                                       @Value("${shareit-server.http.pool-timeout-millis:2000}") int poolTimeoutMillis,
+                                                       @Value("${shareit-server.http.keep-alive-seconds:30}") long keepAliveSeconds,
+                                                       @Value("${shareit-server.http.max-idle-seconds:30}") long maxIdleSeconds) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .setConnectionRequestTimeout(poolTimeoutMillis)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(TimeUnit.SECONDS.toMillis(keepAliveSeconds)))
+                .evictExpiredConnections()
+                .evictIdleConnections(maxIdleSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * Держит соединение столько, сколько разрешил сервер в заголовке Keep-Alive,
+     * а без заголовка — не дольше keepAliveMillis, а не бесконечно, как по умолчанию.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+    }
+}
@@ -1,68 +1,102 @@
 package ru.practicum.shareit.item;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ResponseCache itemCache;
+    private final ResponseCache searchCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory,
+                      @Qualifier("itemResponseCache") ResponseCache itemCache,
+                      @Qualifier("searchResponseCache") ResponseCache searchCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.itemCache = itemCache;
+        this.searchCache = searchCache;
     }
 
     public ResponseEntity<Object> addItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        searchCache.invalidateAll();
+        return response;
     }
 
     public ResponseEntity<Object> updateItem(long userId, long itemId, ItemUpdateDto itemUpdateDto) {
-        return patch("/" + itemId, userId, itemUpdateDto);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemUpdateDto);
+        itemCache.invalidate(itemKey(itemId));
+        searchCache.invalidateAll();
+        return response;
     }
 
+    /**
+     * Владелец видит в вещи последнее и следующее бронирования, поэтому ответ кешируется для каждого пользователя отдельно.
+     */
     public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
+        return itemCache.get(itemKey(itemId) + userId, () -> get("/" + itemId, userId));
     }
 
-    public ResponseEntity<Object> getItems(long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getItems(long userId, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("", userId, parameters);
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
     public ResponseEntity<Object> deleteItem(long itemId) {
-        return delete("/" + itemId);
+        ResponseEntity<Object> response = delete("/" + itemId);
+        itemCache.invalidate(itemKey(itemId));
+        searchCache.invalidateAll();
+        return response;
     }
 
-    public ResponseEntity<Object> searchItems(String text, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> searchItems(String text, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from,
                 "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        ));
+        String path = withCursor("/search?text={text}&from={from}&size={size}", parameters, cursor);
+        return searchCache.get("/search" + new TreeMap<>(parameters), () -> get(path, null, parameters));
     }
 
     public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, commentDto);
+        itemCache.invalidate(itemKey(itemId));
+        return response;
+    }
+
+    /**
+     * Общее начало ключей кеша ответов вещи для всех пользователей.
+     */
+    static String itemKey(long itemId) {
+        return "/" + itemId + "?userId=";
     }
 }
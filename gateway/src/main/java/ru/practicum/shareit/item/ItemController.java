@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import javax.validation.Valid;
 import static ru.practicum.shareit.util.Constants.CONST_SHARED_USER_ID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Slf4j
@@ -45,9 +47,10 @@ public class ItemController {
     @GetMapping
     public ResponseEntity<Object> getItems(@RequestHeader(CONST_SHARED_USER_ID) long userId,
                                            @RequestParam(defaultValue = "0") int from,
-                                           @RequestParam(defaultValue = "10") int size) {
-        log.debug("Получен запрос на получение всех вещей пользователя с id={}, с параметрами from={}, size={}", userId, from, size);
-        return itemClient.getItems(userId, from, size);
+                                           @RequestParam(defaultValue = "10") int size,
+                                           @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на получение всех вещей пользователя с id={}, с параметрами from={}, size={}, cursor={}", userId, from, size, cursor);
+        return itemClient.getItems(userId, from, size, cursor);
     }
 
     @DeleteMapping("/{itemId}")
@@ -59,9 +62,10 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(@RequestParam String text,
                                               @RequestParam(defaultValue = "0") int from,
-                                              @RequestParam(defaultValue = "10") int size) {
-        log.debug("Получен запрос на поиск вещей с текстом: {}, с параметрами from={}, size={}", text, from, size);
-        return itemClient.searchItems(text, from, size);
+                                              @RequestParam(defaultValue = "10") int size,
+                                              @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на поиск вещей с текстом: {}, с параметрами from={}, size={}, cursor={}", text, from, size, cursor);
+        return itemClient.searchItems(text, from, size, cursor);
     }
 
     @PostMapping("/{itemId}/comment")
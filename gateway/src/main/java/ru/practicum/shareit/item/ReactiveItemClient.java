@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    private final ResponseCache itemCache;
+    private final ResponseCache searchCache;
+
+    @Autowired
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder, ClientHttpConnector connector,
+                              @Qualifier("itemResponseCache") ResponseCache itemCache,
+                              @Qualifier("searchResponseCache") ResponseCache searchCache) {
+        super(
+                builder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build()
+        );
+        this.itemCache = itemCache;
+        this.searchCache = searchCache;
+    }
+
+    public Mono<ResponseEntity<Object>> addItem(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto)
+                .doOnSuccess(response -> searchCache.invalidateAll());
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemUpdateDto itemUpdateDto) {
+        return patch("/" + itemId, userId, itemUpdateDto)
+                .doOnSuccess(response -> {
+                    itemCache.invalidate(ItemClient.itemKey(itemId));
+                    searchCache.invalidateAll();
+                });
+    }
+
+    public Mono<ResponseEntity<Object>> getItem(long userId, long itemId) {
+        return itemCache.get(ItemClient.itemKey(itemId) + userId, get("/" + itemId, userId));
+    }
+
+    public Mono<ResponseEntity<Object>> getItems(long userId, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, cursor), userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> deleteItem(long itemId) {
+        return delete("/" + itemId)
+                .doOnSuccess(response -> {
+                    itemCache.invalidate(ItemClient.itemKey(itemId));
+                    searchCache.invalidateAll();
+                });
+    }
+
+    public Mono<ResponseEntity<Object>> searchItems(String text, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        ));
+        String path = withCursor("/search?text={text}&from={from}&size={size}", parameters, cursor);
+        return searchCache.get("/search" + new TreeMap<>(parameters), get(path, null, parameters));
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return post("/" + itemId + "/comment", userId, commentDto)
+                .doOnSuccess(response -> itemCache.invalidate(ItemClient.itemKey(itemId)));
+    }
+}
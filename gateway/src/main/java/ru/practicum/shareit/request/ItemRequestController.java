@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import javax.validation.constraints.PositiveOrZero;
 import static ru.practicum.shareit.util.Constants.CONST_SHARED_USER_ID;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/requests")
 @RequiredArgsConstructor
 @Slf4j
@@ -43,8 +45,9 @@ public class ItemRequestController {
     @GetMapping("/all")
     public ResponseEntity<Object> getAllRequests(@RequestHeader(CONST_SHARED_USER_ID) long userId,
                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                 @RequestParam(defaultValue = "20") @Min(1) int size) {
-        log.debug("Получен запрос на получение всех запросов вещей пользователя с id={}, с параметрами from={}, size={}", userId, from, size);
-        return itemRequestClient.getAllRequests(userId, from, size);
+                                                 @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                 @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на получение всех запросов вещей пользователя с id={}, с параметрами from={}, size={}, cursor={}", userId, from, size, cursor);
+        return itemRequestClient.getAllRequests(userId, from, size, cursor);
     }
 }
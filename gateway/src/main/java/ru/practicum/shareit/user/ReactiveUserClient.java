@@ -0,0 +1,60 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    private final ResponseCache itemCache;
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder, ClientHttpConnector connector,
+                              @Qualifier("itemResponseCache") ResponseCache itemCache) {
+        super(
+                builder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .clientConnector(connector)
+                        .build()
+        );
+        this.itemCache = itemCache;
+    }
+
+    public Mono<ResponseEntity<Object>> addUser(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Object>> updateUser(Long userId, UserUpdateDto userUpdateDto) {
+        // имя пользователя есть в комментариях к вещам, а к каким вещам он писал, шлюзу не известно
+        return patch("/" + userId, userId, null, userUpdateDto)
+                .doOnSuccess(response -> itemCache.invalidateAll());
+    }
+
+    public Mono<ResponseEntity<Object>> getUser(Long userId) {
+        return get("/" + userId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getUsers() {
+        return get("");
+    }
+
+    public Mono<ResponseEntity<Object>> deleteUser(Long userId) {
+        return delete("/" + userId, userId, null)
+                .doOnSuccess(response -> itemCache.invalidateAll());
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+import javax.validation.Valid;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserController {
+
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addUser(@Valid @RequestBody UserDto userDto) {
+        log.debug("Получен запрос на добавление пользователя с данными: {}", userDto);
+        return userClient.addUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId, @Valid @RequestBody UserUpdateDto userUpdateDto) {
+        log.debug("Получен запрос на обновление пользователя с id={}, данными: {}", userId, userUpdateDto);
+        return userClient.updateUser(userId, userUpdateDto);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable Long userId) {
+        log.debug("Получен запрос на получение пользователя с id={}", userId);
+        return userClient.getUser(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getUsers() {
+        log.debug("Получен запрос на получение всех пользователей");
+        return userClient.getUsers();
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
+        log.debug("Получен запрос на удаление пользователя с id={}", userId);
+        return userClient.deleteUser(userId);
+    }
+}
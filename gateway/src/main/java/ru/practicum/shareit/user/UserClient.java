@@ -1,31 +1,39 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
+    private final ResponseCache itemCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory,
+                      @Qualifier("itemResponseCache") ResponseCache itemCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
+        this.itemCache = itemCache;
     }
 
     public ResponseEntity<Object> addUser(UserDto userDto) {
@@ -38,6 +46,8 @@ public class UserClient extends BaseClient {
     public ResponseEntity<Object> updateUser(Long userId, UserUpdateDto userUpdateDto) {
         log.debug("Sending request to update user: {}", userUpdateDto);
         ResponseEntity<Object> response = patch("/" + userId, userId, null, userUpdateDto);
+        // имя пользователя есть в комментариях к вещам, а к каким вещам он писал, шлюзу не известно
+        itemCache.invalidateAll();
         log.debug("Received response: {}", response);
         return response;
     }
@@ -59,6 +69,7 @@ public class UserClient extends BaseClient {
     public ResponseEntity<Object> deleteUser(Long userId) {
         log.debug("Sending request to delete user with ID: {}", userId);
         ResponseEntity<Object> response = delete("/" + userId, userId, null);
+        itemCache.invalidateAll();
         log.debug("Received response: {}", response);
         return response;
     }
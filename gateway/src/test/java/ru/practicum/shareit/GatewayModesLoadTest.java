@@ -0,0 +1,87 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает блокирующий и реактивный варианты шлюза под одинаковой нагрузкой: сервер-заглушка отвечает
+ * с задержкой, а пул потоков Tomcat намеренно мал, как при исчерпании потоков под нагрузкой.
+ */
+@Tag("perf")
+class GatewayModesLoadTest {
+
+    private static final int CONCURRENT_REQUESTS = 100;
+    private static final long SERVER_DELAY_MILLIS = 300;
+
+    private static StubServer stubServer;
+
+    @BeforeAll
+    static void startStubServer() throws IOException {
+        stubServer = new StubServer(SERVER_DELAY_MILLIS);
+    }
+
+    @AfterAll
+    static void stopStubServer() {
+        stubServer.close();
+    }
+
+    @Test
+    void testReactiveGatewayIsNotCappedByThreadPool() throws Exception {
+        long servletMillis = measure(WebApplicationType.SERVLET);
+        long reactiveMillis = measure(WebApplicationType.REACTIVE);
+        assertEquals(Set.of("7"), stubServer.userIds());
+        assertTrue(reactiveMillis * 2 < servletMillis,
+                "реактивный шлюз: " + reactiveMillis + " мс, блокирующий: " + servletMillis + " мс");
+    }
+
+    private long measure(WebApplicationType type) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--spring.main.web-application-type=" + type,
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=10",
+                        "--shareit-server.cache.items.enabled=false",
+                        "--shareit-server.url=" + stubServer.url())) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            for (int i = 0; i < 5; i++) {
+                assertEquals(StubServer.ITEM_JSON, client.send(itemRequest(port, i), HttpResponse.BodyHandlers.ofString()).body());
+            }
+            long startedAt = System.nanoTime();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            // разные вещи, чтобы одинаковые запросы не объединялись в один запрос к серверу
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                responses.add(client.sendAsync(itemRequest(port, i), HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+                assertEquals(StubServer.ITEM_JSON, response.get().body());
+            }
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+    }
+
+    private static HttpRequest itemRequest(int port, int itemId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + itemId))
+                .header("X-Sharer-User-Id", "7")
+                .build();
+    }
+}
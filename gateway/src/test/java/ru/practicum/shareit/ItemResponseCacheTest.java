@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Кеш ответов шлюза на GET /items/{id} и GET /items/search: повторные чтения не доходят до сервера,
+ * изменение вещи сбрасывает ее ответы, изменение пользователя — ответы всех вещей,
+ * кеш поиска выключается отдельно от кеша вещей.
+ */
+class ItemResponseCacheTest {
+
+    private static StubServer stubServer;
+    private static ConfigurableApplicationContext context;
+    private static String gatewayUrl;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startGateway() throws IOException {
+        stubServer = new StubServer(0)
+                .respond("/users", "{\"id\":7,\"name\":\"Новое имя\"}");
+        context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--spring.main.web-application-type=servlet",
+                        "--server.port=0",
+                        "--shareit-server.cache.search.enabled=false",
+                        "--shareit-server.url=" + stubServer.url());
+        gatewayUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @AfterAll
+    static void stopGateway() {
+        context.close();
+        stubServer.close();
+    }
+
+    @Test
+    void testItemReadsAreCachedPerUserAndInvalidatedByUpdate() throws Exception {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName itemCache = new ObjectName("ru.practicum.shareit.client:type=ResponseCache,name=itemResponseCache");
+        long cacheHitsBefore = (long) mBeanServer.getAttribute(itemCache, "Hits");
+        long cacheMissesBefore = (long) mBeanServer.getAttribute(itemCache, "Misses");
+        int hitsBefore = stubServer.hits();
+
+        assertEquals(StubServer.ITEM_JSON, send(get("/items/1", 7)).body());
+        assertEquals(StubServer.ITEM_JSON, send(get("/items/1", 7)).body());
+        assertEquals(1, stubServer.hits() - hitsBefore);
+
+        send(get("/items/1", 8));
+        assertEquals(2, stubServer.hits() - hitsBefore);
+
+        HttpResponse<String> updated = send(HttpRequest.newBuilder(URI.create(gatewayUrl + "/items/1"))
+                .header("X-Sharer-User-Id", "7")
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\":\"Новая вещь\"}"))
+                .build());
+        assertEquals(200, updated.statusCode());
+        assertEquals(3, stubServer.hits() - hitsBefore);
+
+        send(get("/items/1", 7));
+        send(get("/items/1", 8));
+        assertEquals(5, stubServer.hits() - hitsBefore);
+
+        assertEquals(1L, (long) mBeanServer.getAttribute(itemCache, "Hits") - cacheHitsBefore);
+        assertEquals(4L, (long) mBeanServer.getAttribute(itemCache, "Misses") - cacheMissesBefore);
+    }
+
+    @Test
+    void testUserUpdateInvalidatesItemReads() throws Exception {
+        send(get("/items/2", 8));
+        int hitsBefore = stubServer.hits();
+        send(get("/items/2", 8));
+        assertEquals(0, stubServer.hits() - hitsBefore);
+
+        HttpResponse<String> updated = send(HttpRequest.newBuilder(URI.create(gatewayUrl + "/users/7"))
+                .header("X-Sharer-User-Id", "7")
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\":\"Новое имя\"}"))
+                .build());
+        assertEquals(200, updated.statusCode());
+        assertEquals(1, stubServer.hits() - hitsBefore);
+
+        send(get("/items/2", 8));
+        assertEquals(2, stubServer.hits() - hitsBefore);
+    }
+
+    @Test
+    void testDisabledSearchCacheForwardsEveryRead() throws Exception {
+        int hitsBefore = stubServer.hits();
+
+        send(get("/items/search?text=%D0%B2%D0%B5%D1%89%D1%8C", 7));
+        send(get("/items/search?text=%D0%B2%D0%B5%D1%89%D1%8C", 7));
+
+        assertEquals(2, stubServer.hits() - hitsBefore);
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
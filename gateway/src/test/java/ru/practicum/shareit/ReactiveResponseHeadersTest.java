@@ -0,0 +1,62 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Реактивный шлюз, как и блокирующий, передает клиенту сквозные заголовки ответа сервера,
+ * в том числе курсор следующей страницы списка.
+ */
+class ReactiveResponseHeadersTest {
+
+    private static final String NEXT_CURSOR = "MjAzMC0wMS0wMVQxMDowMDowMHw0Mg";
+
+    private static StubServer stubServer;
+    private static ConfigurableApplicationContext context;
+    private static String gatewayUrl;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startGateway() throws IOException {
+        stubServer = new StubServer(0)
+                .header("X-Next-Cursor", NEXT_CURSOR);
+        context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--spring.main.web-application-type=reactive",
+                        "--server.port=0",
+                        "--shareit-server.url=" + stubServer.url());
+        gatewayUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @AfterAll
+    static void stopGateway() {
+        context.close();
+        stubServer.close();
+    }
+
+    @Test
+    void testNextCursorReachesCaller() throws Exception {
+        for (String path : new String[]{"/items?from=0&size=2", "/items/search?text=abc&from=0&size=2"}) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                    .header("X-Sharer-User-Id", "7")
+                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode(), path);
+            assertEquals(Optional.of(NEXT_CURSOR), response.headers().firstValue("X-Next-Cursor"), path);
+            assertEquals(Optional.of("application/json"), response.headers().firstValue("Content-Type"), path);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Реактивный шлюз не ждет зависший сервер бесконечно: запрос без ответа обрывается по таймауту ответа,
+ * а запрос сверх очереди ожидающих соединения сразу получает ошибку.
+ */
+class ReactiveServerTimeoutTest {
+
+    private static final long SERVER_DELAY_MILLIS = 3000;
+    private static final long READ_TIMEOUT_MILLIS = 500;
+
+    private static StubServer stubServer;
+    private static ConfigurableApplicationContext context;
+    private static String gatewayUrl;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startGateway() throws Exception {
+        stubServer = new StubServer(SERVER_DELAY_MILLIS);
+        context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--spring.main.web-application-type=reactive",
+                        "--server.port=0",
+                        "--shareit-server.cache.items.enabled=false",
+                        "--shareit-server.reactive.max-connections=1",
+                        "--shareit-server.reactive.max-pending-acquires=1",
+                        "--shareit-server.http.read-timeout-millis=" + READ_TIMEOUT_MILLIS,
+                        "--shareit-server.http.pool-timeout-millis=10000",
+                        "--shareit-server.url=" + stubServer.url());
+        gatewayUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        // первый запрос прогревает шлюз, чтобы время его запуска не попало в замеры
+        HttpClient.newHttpClient().send(get("/items/0"), HttpResponse.BodyHandlers.discarding());
+    }
+
+    @AfterAll
+    static void stopGateway() {
+        context.close();
+        stubServer.close();
+    }
+
+    @Test
+    void testSlowServerResponseTimesOut() throws Exception {
+        long startedAt = System.nanoTime();
+        HttpResponse<String> response = client.send(get("/items/1"), HttpResponse.BodyHandlers.ofString());
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertEquals(500, response.statusCode());
+        assertTrue(elapsedMillis < SERVER_DELAY_MILLIS, "ответ через " + elapsedMillis + " мс");
+    }
+
+    @Test
+    void testRequestBeyondPendingQueueIsRejected() {
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(client.sendAsync(get("/items/" + (i + 2)), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        CompletableFuture<Object> first = CompletableFuture.anyOf(responses.toArray(new CompletableFuture<?>[0]));
+        HttpResponse<?> rejected = (HttpResponse<?>) first.join();
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        assertEquals(500, rejected.statusCode());
+        // одно соединение занято, один запрос ждет его, третий отклоняется, не дожидаясь таймаута ответа
+        assertTrue(elapsedMillis < READ_TIMEOUT_MILLIS, "первая ошибка через " + elapsedMillis + " мс");
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(500, response.join().statusCode());
+        }
+    }
+
+    private static HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .header("X-Sharer-User-Id", "7")
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Одинаковые одновременные GET-запросы через BaseClient уходят на сервер одним запросом,
+ * если между ними не было изменений через шлюз.
+ */
+class RequestCoalescingTest {
+
+    private static final int CALLERS = 20;
+    private static final long SERVER_DELAY_MILLIS = 500;
+    private static final ResponseCache DISABLED_CACHE = new ResponseCache(false, 1, Duration.ofSeconds(1));
+
+    private StubServer stubServer;
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new StubServer(SERVER_DELAY_MILLIS);
+        requestFactory = new HttpComponentsClientHttpRequestFactory();
+        itemClient = new ItemClient(stubServer.url(), new RestTemplateBuilder(), requestFactory, DISABLED_CACHE, DISABLED_CACHE);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        requestFactory.destroy();
+        stubServer.close();
+    }
+
+    @Test
+    void testIdenticalConcurrentReadsShareOneServerCall() throws Exception {
+        List<ResponseEntity<Object>> responses = callConcurrently(i -> itemClient.getItem(7, 1));
+
+        assertEquals(1, stubServer.hits());
+        for (ResponseEntity<Object> response : responses) {
+            assertEquals(200, response.getStatusCodeValue());
+            assertArrayEquals(StubServer.ITEM_JSON.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        }
+    }
+
+    @Test
+    void testReadsOfDifferentUsersAndQueriesAreNotShared() throws Exception {
+        callConcurrently(i -> i % 2 == 0 ? itemClient.getItem(7, 1) : itemClient.getItem(8, 1));
+        assertEquals(2, stubServer.hits());
+
+        callConcurrently(i -> itemClient.searchItems("вещь " + i % 3, 0, 10, null));
+        assertEquals(5, stubServer.hits());
+    }
+
+    @Test
+    void testSequentialReadsAreNotShared() {
+        itemClient.getItem(7, 1);
+        itemClient.getItem(7, 1);
+
+        assertEquals(2, stubServer.hits());
+    }
+
+    @Test
+    void testReadAfterWriteIsNotSharedWithEarlierRead() throws Exception {
+        stubServer.delayWrites(0);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<ResponseEntity<Object>> beforeWrite = executor.submit(() -> itemClient.getItem(7, 1));
+            Thread.sleep(100);
+            Future<ResponseEntity<Object>> joinedBeforeWrite = executor.submit(() -> itemClient.getItem(7, 1));
+            Thread.sleep(100);
+            assertEquals(200, itemClient.updateItem(7, 1, new ItemUpdateDto(null, "Новое название", null, null)).getStatusCodeValue());
+            Future<ResponseEntity<Object>> afterWrite = executor.submit(() -> itemClient.getItem(7, 1));
+            beforeWrite.get();
+            joinedBeforeWrite.get();
+            afterWrite.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(3, stubServer.hits());
+    }
+
+    private List<ResponseEntity<Object>> callConcurrently(Call call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                int caller = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    return call.call(caller);
+                }));
+            }
+            startSignal.countDown();
+            List<ResponseEntity<Object>> responses = new ArrayList<>();
+            for (Future<ResponseEntity<Object>> future : futures) {
+                responses.add(future.get());
+            }
+            return responses;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private interface Call {
+        ResponseEntity<Object> call(int caller);
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает передачу больших страниц /items и /bookings байтами с прежним путем, когда шлюз разбирал ответ сервера
+ * в дерево объектов и затем снова сериализовал его в JSON для клиента: объем выделенной памяти и время на запрос.
+ */
+@Tag("perf")
+class ResponsePassthroughBenchmarkTest {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+    private static final String PREFIX = "/large";
+    private static final ResponseCache DISABLED_CACHE = new ResponseCache(false, 1, Duration.ofSeconds(1));
+    private static final String ERROR_JSON = "{\"error\":\"Вещь не найдена\"}";
+
+    private static final String ITEMS_JSON = IntStream.range(0, PAGE_SIZE)
+            .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"Вещь " + i + "\",\"description\":\"Описание вещи номер " + i
+                    + "\",\"available\":true,\"requestId\":null,\"lastBooking\":null,\"nextBooking\":null,\"comments\":[]}")
+            .collect(Collectors.joining(",", "[", "]"));
+    private static final String BOOKINGS_JSON = IntStream.range(0, PAGE_SIZE)
+            .mapToObj(i -> "{\"id\":" + i + ",\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\",\"status\":\"APPROVED\","
+                    + "\"booker\":{\"id\":7,\"name\":\"Арендатор\",\"email\":\"booker@example.com\"},"
+                    + "\"item\":{\"id\":" + i + ",\"name\":\"Вещь " + i + "\",\"description\":\"Описание вещи номер " + i + "\",\"available\":true}}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+    private static StubServer stubServer;
+    private static HttpComponentsClientHttpRequestFactory requestFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startStubServer() throws IOException {
+        // без контекста Spring logback пишет DEBUG, включая побайтовый лог httpclient, и искажает замер
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        stubServer = new StubServer(0)
+                .respond(PREFIX + "/items", ITEMS_JSON)
+                .respond(PREFIX + "/items/404", 404, ERROR_JSON)
+                .respond(PREFIX + "/bookings", BOOKINGS_JSON);
+        requestFactory = new HttpComponentsClientHttpRequestFactory();
+    }
+
+    @AfterAll
+    static void stopStubServer() throws Exception {
+        requestFactory.destroy();
+        stubServer.close();
+    }
+
+    @Test
+    void testItemsPagePassthroughAllocatesLessThanReserialization() throws Exception {
+        ItemClient itemClient = new ItemClient(stubServer.url() + PREFIX, new RestTemplateBuilder(), requestFactory, DISABLED_CACHE, DISABLED_CACHE);
+        assertArrayEquals(ITEMS_JSON.getBytes(StandardCharsets.UTF_8), (byte[]) itemClient.getItems(7, 0, PAGE_SIZE, null).getBody());
+
+        compare("/items?from=0&size=" + PAGE_SIZE, () -> itemClient.getItems(7, 0, PAGE_SIZE, null).getBody());
+    }
+
+    @Test
+    void testBookingsPagePassthroughAllocatesLessThanReserialization() throws Exception {
+        BookingClient bookingClient = new BookingClient(stubServer.url() + PREFIX, new RestTemplateBuilder(), requestFactory, DISABLED_CACHE);
+        assertArrayEquals(BOOKINGS_JSON.getBytes(StandardCharsets.UTF_8), (byte[]) bookingClient.getBookings(7, "ALL", 0, PAGE_SIZE, null).getBody());
+
+        compare("/bookings?state=ALL&from=0&size=" + PAGE_SIZE, () -> bookingClient.getBookings(7, "ALL", 0, PAGE_SIZE, null).getBody());
+    }
+
+    @Test
+    void testErrorResponsePassesThroughWithStatusAndContentType() {
+        ItemClient itemClient = new ItemClient(stubServer.url() + PREFIX, new RestTemplateBuilder(), requestFactory, DISABLED_CACHE, DISABLED_CACHE);
+
+        ResponseEntity<Object> response = itemClient.getItem(7, 404);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(ERROR_JSON.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    private void compare(String path, Callable<Object> passthrough) throws Exception {
+        RestTemplate rest = new RestTemplateBuilder().requestFactory(() -> requestFactory).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set("X-Sharer-User-Id", "7");
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        // прежний путь: ответ разбирается в Object, а Spring MVC сериализует его обратно тем же Jackson
+        Callable<Object> reserialization = () -> objectMapper.writeValueAsBytes(
+                rest.exchange(stubServer.url() + PREFIX + path, HttpMethod.GET, request, Object.class).getBody());
+
+        Measurement before = measure(reserialization);
+        Measurement after = measure(passthrough);
+
+        assertTrue(after.bytesPerRequest * 2 < before.bytesPerRequest,
+                "память на запрос без разбора: " + after.bytesPerRequest + " байт, с разбором: " + before.bytesPerRequest + " байт");
+        assertTrue(after.nanosPerRequest < before.nanosPerRequest,
+                "время на запрос без разбора: " + after.nanosPerRequest / 1000 + " мкс, с разбором: " + before.nanosPerRequest / 1000 + " мкс");
+    }
+
+    private static Measurement measure(Callable<Object> call) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            call.call();
+        }
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.call();
+        }
+        long nanos = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(allocated / ITERATIONS, nanos / ITERATIONS);
+    }
+
+    private static class Measurement {
+        private final long bytesPerRequest;
+        private final long nanosPerRequest;
+
+        private Measurement(long bytesPerRequest, long nanosPerRequest) {
+            this.bytesPerRequest = bytesPerRequest;
+            this.nanosPerRequest = nanosPerRequest;
+        }
+    }
+}
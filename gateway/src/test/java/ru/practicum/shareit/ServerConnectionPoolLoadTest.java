@@ -0,0 +1,117 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.ItemClient;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает p99 задержки клиента шлюза на общем настроенном пуле соединений и на фабрике запросов
+ * по умолчанию, которая держит не больше 5 соединений с сервером, под одинаковой конкурентной нагрузкой.
+ */
+@Tag("perf")
+class ServerConnectionPoolLoadTest {
+
+    private static final int THREADS = 50;
+    private static final int REQUESTS_PER_THREAD = 10;
+    private static final long SERVER_DELAY_MILLIS = 20;
+    private static final ResponseCache DISABLED_CACHE = new ResponseCache(false, 1, Duration.ofSeconds(1));
+
+    private static StubServer stubServer;
+
+    @BeforeAll
+    static void startStubServer() throws IOException {
+        stubServer = new StubServer(SERVER_DELAY_MILLIS);
+    }
+
+    @AfterAll
+    static void stopStubServer() {
+        stubServer.close();
+    }
+
+    @Test
+    void testSharedPoolReducesTailLatency() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--spring.main.web-application-type=servlet",
+                        "--server.port=0",
+                        "--shareit-server.cache.items.enabled=false",
+                        "--shareit-server.url=" + stubServer.url())) {
+            ItemClient pooledClient = context.getBean(ItemClient.class);
+            HttpComponentsClientHttpRequestFactory defaultRequestFactory = new HttpComponentsClientHttpRequestFactory();
+            ItemClient defaultClient = new ItemClient(stubServer.url(), new RestTemplateBuilder(), defaultRequestFactory,
+                    DISABLED_CACHE, DISABLED_CACHE);
+            try {
+                long defaultP99 = p99(defaultClient);
+                long pooledP99 = p99(pooledClient);
+                assertTrue(pooledP99 * 2 < defaultP99,
+                        "p99 на общем пуле: " + pooledP99 + " мс, на фабрике по умолчанию: " + defaultP99 + " мс");
+            } finally {
+                defaultRequestFactory.destroy();
+            }
+
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName pool = new ObjectName("ru.practicum.shareit:type=ServerConnectionPool");
+            assertEquals(0, mBeanServer.getAttribute(pool, "Leased"));
+            assertEquals(0, mBeanServer.getAttribute(pool, "Pending"));
+            assertEquals(100, mBeanServer.getAttribute(pool, "MaxPerRoute"));
+            assertTrue((int) mBeanServer.getAttribute(pool, "Available") > 5);
+        }
+    }
+
+    private static long p99(ItemClient client) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, client.getItem(7, 1).getStatusCodeValue());
+        }
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int firstItemId = thread * REQUESTS_PER_THREAD;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        long startedAt = System.nanoTime();
+                        // разные вещи, чтобы одинаковые запросы не объединялись в один запрос к серверу
+                        ResponseEntity<Object> response = client.getItem(7, firstItemId + i);
+                        latencies.add((System.nanoTime() - startedAt) / 1_000_000);
+                        assertEquals(200, response.getStatusCodeValue());
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Collections.sort(latencies);
+        return latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервер-заглушка вместо ShareIt-сервера: на любой запрос к /items отвечает одной и той же вещью с задержкой,
+ * которую для изменяющих запросов можно задать отдельно,
+ * на другие пути — заданным через respond JSON, и запоминает число запросов и переданные идентификаторы пользователей.
+ */
+class StubServer implements AutoCloseable {
+
+    static final String ITEM_JSON = "{\"id\":1,\"name\":\"Вещь\"}";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final Set<String> userIds = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> responseHeaders = new ConcurrentHashMap<>();
+    private final long delayMillis;
+    private volatile long writeDelayMillis = -1;
+
+    StubServer(long delayMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.delayMillis = delayMillis;
+        respond("/items", ITEM_JSON);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    StubServer respond(String path, String json) {
+        return respond(path, 200, json);
+    }
+
+    /**
+     * Отвечает на запросы с путем, начинающимся с path, заданными статусом и JSON.
+     */
+    StubServer respond(String path, int status, String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        server.createContext(path, exchange -> {
+            hits.incrementAndGet();
+            userIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id")));
+            boolean write = !"GET".equals(exchange.getRequestMethod());
+            try {
+                Thread.sleep(write && writeDelayMillis >= 0 ? writeDelayMillis : delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            responseHeaders.forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Задает отдельную задержку ответов на запросы, кроме GET.
+     */
+    StubServer delayWrites(long millis) {
+        writeDelayMillis = millis;
+        return this;
+    }
+
+    /**
+     * Добавляет заголовок ко всем следующим ответам.
+     */
+    StubServer header(String name, String value) {
+        responseHeaders.put(name, value);
+        return this;
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    int hits() {
+        return hits.get();
+    }
+
+    Set<String> userIds() {
+        return userIds;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
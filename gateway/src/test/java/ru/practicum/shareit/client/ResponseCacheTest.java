@@ -0,0 +1,150 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResponseCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testRepeatedReadIsServedFromCache() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofSeconds(30), clock);
+
+        ResponseEntity<Object> first = cache.get("/1?userId=7", this::load);
+        ResponseEntity<Object> second = cache.get("/1?userId=7", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testExpiredResponseIsReloaded() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofSeconds(30), clock);
+        cache.get("/1?userId=7", this::load);
+
+        clock.advance(Duration.ofSeconds(30));
+        cache.get("/1?userId=7", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testLeastRecentlyReadResponseIsEvicted() {
+        ResponseCache cache = new ResponseCache(true, 2, Duration.ofSeconds(30), clock);
+        cache.get("/1?userId=7", this::load);
+        cache.get("/2?userId=7", this::load);
+        cache.get("/1?userId=7", this::load);
+
+        cache.get("/3?userId=7", this::load);
+        cache.get("/1?userId=7", this::load);
+        cache.get("/2?userId=7", this::load);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void testInvalidateRemovesResponsesOfAllUsers() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofSeconds(30), clock);
+        cache.get("/1?userId=7", this::load);
+        cache.get("/1?userId=8", this::load);
+        cache.get("/12?userId=7", this::load);
+
+        cache.invalidate("/1?userId=");
+
+        assertEquals(1, cache.getSize());
+        cache.get("/12?userId=7", this::load);
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testResponseLoadedBeforeInvalidationIsNotCached() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofSeconds(30), clock);
+
+        cache.get("/1?userId=7", () -> {
+            cache.invalidate("/1?userId=");
+            return load();
+        });
+        cache.get("/1?userId=7", this::load);
+
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testErrorResponseIsNotCached() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofSeconds(30), clock);
+
+        cache.get("/1?userId=7", () -> ResponseEntity.notFound().build());
+
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testReactiveReadSubscribesToLoaderOnlyOnMiss() {
+        ResponseCache cache = new ResponseCache(true, 10, Duration.ofSeconds(30), clock);
+        Mono<ResponseEntity<Object>> loader = Mono.fromSupplier(this::load);
+
+        ResponseEntity<Object> first = cache.get("/1?userId=7", loader).block();
+        ResponseEntity<Object> second = cache.get("/1?userId=7", loader).block();
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testDisabledCacheAlwaysLoads() {
+        ResponseCache cache = new ResponseCache(false, 10, Duration.ofSeconds(30), clock);
+
+        cache.get("/1?userId=7", this::load);
+        cache.get("/1?userId=7", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getSize());
+    }
+
+    private ResponseEntity<Object> load() {
+        return ResponseEntity.ok(new byte[]{(byte) loads.incrementAndGet()});
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T10:00:00Z");
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Заполняет bookings.owner_id владельцем вещи диапазонами id по {@value #BATCH_SIZE} строк.
+ * Выполняется вне общей транзакции: каждая пачка фиксируется отдельно и держит блокировки
+ * только своих строк, а после сбоя повторный запуск продолжит с незаполненных строк.
+ */
+public class V7__Backfill_bookings_owner_id extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        long maxId = maxBookingId(connection);
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id) " +
+                        "WHERE id > ? AND id <= ? AND owner_id IS NULL")) {
+            for (long fromId = 0; fromId < maxId; fromId += BATCH_SIZE) {
+                update.setLong(1, fromId);
+                update.setLong(2, fromId + BATCH_SIZE);
+                update.executeUpdate();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    private static long maxBookingId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM bookings")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
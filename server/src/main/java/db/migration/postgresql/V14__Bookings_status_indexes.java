@@ -0,0 +1,81 @@
+package db.migration.postgresql;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Создает индексы бронирований по статусу и датам для планировщика событий, не блокируя запись в bookings.
+ * Секционированную таблицу нельзя индексировать с CONCURRENTLY, поэтому на родителе индекс создается
+ * только в каталоге (ON ONLY), на каждой секции строится с CONCURRENTLY и присоединяется к родителю.
+ * Индекс родителя становится действительным, когда присоединены индексы всех секций; секции, созданные позже,
+ * получают его автоматически. Повторный запуск после сбоя достраивает только секции без присоединенного индекса.
+ */
+public class V14__Bookings_status_indexes extends BaseJavaMigration {
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        createIndex(connection, "idx_bookings_status_start", "status_start_idx", "status, start_date");
+        createIndex(connection, "idx_bookings_status_end", "status_end_idx", "status, end_date");
+    }
+
+    private static void createIndex(Connection connection, String name, String suffix, String columns) throws SQLException {
+        execute(connection, "CREATE INDEX IF NOT EXISTS " + name + " ON ONLY bookings (" + columns + ")");
+        for (String partition : partitionsWithoutIndex(connection, name)) {
+            String partitionIndex = partition + "_" + suffix;
+            if (isInvalid(connection, partitionIndex)) {
+                // остался от прерванного CREATE INDEX CONCURRENTLY
+                execute(connection, "DROP INDEX CONCURRENTLY " + partitionIndex);
+            }
+            execute(connection, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + partitionIndex + " ON " + partition + " (" + columns + ")");
+            execute(connection, "ALTER INDEX " + name + " ATTACH PARTITION " + partitionIndex);
+        }
+    }
+
+    private static List<String> partitionsWithoutIndex(Connection connection, String index) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = 'bookings'::regclass AND NOT EXISTS (" +
+                        "SELECT 1 FROM pg_inherits ii JOIN pg_index x ON x.indexrelid = ii.inhrelid " +
+                        "WHERE ii.inhparent = to_regclass(?) AND x.indrelid = c.oid) " +
+                        "ORDER BY c.relname")) {
+            statement.setString(1, index);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    partitions.add(resultSet.getString(1));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static boolean isInvalid(Connection connection, String index) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT 1 FROM pg_index WHERE indexrelid = to_regclass(?) AND NOT indisvalid")) {
+            statement.setString(1, index);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Индекс занятости вещей: для каждой вещи хранит ожидающие и подтвержденные бронирования,
+ * отсортированные по дате начала. Активные бронирования одной вещи не пересекаются,
+ * поэтому для проверки периода достаточно соседей по дате начала.
+ * Бронирования, закончившиеся до построения индекса, не загружаются, а закончившиеся позже
+ * вытесняются при добавлении новых бронирований той же вещи.
+ * Изменения индекса упорядочены монитором индекса, чтение идет без блокировок.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemAvailabilityIndex {
+
+    private static final int WARM_UP_BATCH_SIZE = 1000;
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final Comparator<Interval> BY_START = Comparator.comparing(Interval::getStart)
+            .thenComparingLong(Interval::getBookingId);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, NavigableSet<Interval>> intervals = new ConcurrentHashMap<>();
+
+    /**
+     * Бронирования, добавленные или удаленные, пока строится индекс; null вне построения.
+     */
+    private Set<Long> changedDuringWarmUp;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        log.debug("Построение индекса занятости вещей");
+        setChangedDuringWarmUp(new HashSet<>());
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long afterId = 0;
+            int loaded = 0;
+            List<Booking> batch;
+            do {
+                batch = bookingRepository.findByIdGreaterThanAndStatusInAndEndAfterOrderByIdAsc(
+                        afterId, ACTIVE_STATUSES, now, PageRequest.of(0, WARM_UP_BATCH_SIZE));
+                addUnchanged(batch);
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+                loaded += batch.size();
+            } while (batch.size() == WARM_UP_BATCH_SIZE);
+            log.debug("Индекс занятости построен, загружено бронирований: {}", loaded);
+        } finally {
+            setChangedDuringWarmUp(null);
+        }
+    }
+
+    public synchronized void add(Booking booking) {
+        markChanged(booking.getId());
+        putInterval(booking);
+    }
+
+    public synchronized void remove(Booking booking) {
+        markChanged(booking.getId());
+        removeInterval(booking);
+    }
+
+    /**
+     * Свободна ли вещь на полуинтервале [start, end).
+     */
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableSet<Interval> itemIntervals = intervals.get(itemId);
+        if (itemIntervals == null) {
+            return true;
+        }
+        Interval probe = probe(start);
+        Interval previous = itemIntervals.lower(probe);
+        if (previous != null && previous.getEnd().isAfter(start)) {
+            return false;
+        }
+        Interval next = itemIntervals.ceiling(probe);
+        return next == null || !next.getStart().isBefore(end);
+    }
+
+    /**
+     * Самое раннее начало не раньше start, с которого вещь свободна в течение периода той же длины, что и [start, end).
+     */
+    public LocalDateTime findNextFreeStart(Long itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableSet<Interval> itemIntervals = intervals.get(itemId);
+        if (itemIntervals == null) {
+            return start;
+        }
+        Duration duration = Duration.between(start, end);
+        Interval probe = probe(start);
+        LocalDateTime candidate = start;
+        Interval previous = itemIntervals.lower(probe);
+        if (previous != null && previous.getEnd().isAfter(candidate)) {
+            candidate = previous.getEnd();
+        }
+        for (Interval interval : itemIntervals.tailSet(probe, true)) {
+            if (!interval.getStart().isBefore(candidate.plus(duration))) {
+                break;
+            }
+            if (interval.getEnd().isAfter(candidate)) {
+                candidate = interval.getEnd();
+            }
+        }
+        return candidate;
+    }
+
+    public int size(Long itemId) {
+        NavigableSet<Interval> itemIntervals = intervals.get(itemId);
+        return itemIntervals == null ? 0 : itemIntervals.size();
+    }
+
+    /**
+     * Добавляет бронирования, прочитанные при построении индекса, кроме измененных за это время:
+     * их актуальное состояние уже внесено через add или remove, а прочитанное могло устареть.
+     */
+    private synchronized void addUnchanged(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            if (!changedDuringWarmUp.contains(booking.getId())) {
+                putInterval(booking);
+            }
+        }
+    }
+
+    private synchronized void setChangedDuringWarmUp(Set<Long> changed) {
+        changedDuringWarmUp = changed;
+    }
+
+    private void markChanged(Long bookingId) {
+        if (changedDuringWarmUp != null) {
+            changedDuringWarmUp.add(bookingId);
+        }
+    }
+
+    private void putInterval(Booking booking) {
+        if (!ACTIVE_STATUSES.contains(booking.getStatus())) {
+            removeInterval(booking);
+            return;
+        }
+        NavigableSet<Interval> itemIntervals = intervals.computeIfAbsent(booking.getItem().getId(),
+                id -> new ConcurrentSkipListSet<>(BY_START));
+        itemIntervals.add(new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+        evictFinished(itemIntervals, LocalDateTime.now());
+    }
+
+    private void removeInterval(Booking booking) {
+        NavigableSet<Interval> itemIntervals = intervals.get(booking.getItem().getId());
+        if (itemIntervals != null) {
+            itemIntervals.remove(new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+        }
+    }
+
+    private static void evictFinished(NavigableSet<Interval> itemIntervals, LocalDateTime now) {
+        Iterator<Interval> iterator = itemIntervals.iterator();
+        while (iterator.hasNext() && iterator.next().getEnd().isBefore(now)) {
+            iterator.remove();
+        }
+    }
+
+    private static Interval probe(LocalDateTime start) {
+        return new Interval(Long.MIN_VALUE, start, start);
+    }
+
+    private static final class Interval {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+
+        private long getBookingId() {
+            return bookingId;
+        }
+
+        private LocalDateTime getStart() {
+            return start;
+        }
+
+        private LocalDateTime getEnd() {
+            return end;
+        }
+    }
+}
@@ -2,14 +2,22 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static ru.practicum.shareit.util.Constants.CONST_SHARED_USER_ID;
@@ -35,6 +43,13 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, userId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> updateBookings(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
+                                                         @RequestBody @NotEmpty List<@Valid BookingDecisionDto> decisions) {
+        log.debug("Получен запрос на пакетное обновление статусов бронирований от пользователя с id={}, решения: {}", userId, decisions);
+        return bookingService.updateBookingStatuses(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable Long bookingId, @RequestHeader(CONST_SHARED_USER_ID) Long userId) {
         log.debug("Получен запрос на получение бронирования с id={} от пользователя с id={}", bookingId, userId);
@@ -42,20 +57,37 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
-                                            @RequestParam(defaultValue = "ALL") String state,
-                                            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                            @RequestParam(defaultValue = "10") @Min(1) int size) {
-        log.debug("Получен запрос на получение всех бронирований пользователя с id={} со статусом {}, с параметрами from={}, size={}", userId, state, from, size);
-        return bookingService.getUserBookings(userId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                            @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                            @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на получение всех бронирований пользователя с id={} со статусом {}, с параметрами from={}, size={}, cursor={}", userId, state, from, size, cursor);
+        List<BookingDto> bookings = cursor != null
+                ? bookingService.getUserBookings(userId, state, cursor, size)
+                : bookingService.getUserBookings(userId, state, from, size);
+        return PageCursor.withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader(CONST_SHARED_USER_ID) Long ownerId,
-                                             @RequestParam(defaultValue = "ALL") String state,
-                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                             @RequestParam(defaultValue = "10") @Min(1) int size) {
-        log.debug("Получен запрос на получение всех бронирований владельца с id={} со статусом {}, с параметрами from={}, size={}", ownerId, state, from, size);
-        return bookingService.getOwnerBookings(ownerId, state, from, size);
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader(CONST_SHARED_USER_ID) Long ownerId,
+                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                             @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                             @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на получение всех бронирований владельца с id={} со статусом {}, с параметрами from={}, size={}, cursor={}", ownerId, state, from, size, cursor);
+        List<BookingDto> bookings = cursor != null
+                ? bookingService.getOwnerBookings(ownerId, state, cursor, size)
+                : bookingService.getOwnerBookings(ownerId, state, from, size);
+        return PageCursor.withNextCursor(bookings, size, booking -> PageCursor.of(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping("/availability")
+    public ItemAvailabilityDto getItemAvailability(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
+                                                   @RequestParam Long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.debug("Получен запрос на проверку доступности вещи с id={} от пользователя с id={} на период start={}, end={}", itemId, userId, start, end);
+        return bookingService.getItemAvailability(itemId, start, end);
     }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+    @NotNull(message = "Идентификатор бронирования не может быть пустым")
+    private Long bookingId;
+    @NotNull(message = "Решение по бронированию не может быть пустым")
+    private Boolean approved;
+}
@@ -27,4 +27,17 @@ public class BookingDto {
     private UserDto booker;
     private ItemDto item;
     private BookingStatus status;
+
+    /**
+     * Конструктор JPQL-проекции списков бронирований: собирает ответ из колонок без загрузки сущностей.
+     */
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                      Long itemOwnerId, Long itemRequestId,
+                      Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, itemId,
+                new UserDto(bookerId, bookerName, bookerEmail),
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemOwnerId, itemRequestId, null, null, null),
+                status);
+    }
 }
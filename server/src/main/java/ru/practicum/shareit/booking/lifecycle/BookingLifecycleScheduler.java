@@ -0,0 +1,287 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Планировщик начала и окончания подтвержденных бронирований на колесе таймеров.
+ * В колесе держатся только таймеры ближайшего окна horizon: окно загружается из базы при старте
+ * и сдвигается периодической подгрузкой, а бронирования, подтвержденные внутри уже загруженного окна,
+ * добавляются сразу после подтверждения. Наступившие события сохраняются в booking_events
+ * и публикуются как BookingEvent для уведомлений и сброса кешей. При старте окно начинается
+ * с последнего сохраненного события, поэтому события, наступившие во время остановки сервера, не теряются.
+ */
+@Component
+@EnableScheduling
+@Slf4j
+public class BookingLifecycleScheduler {
+
+    private final BookingRepository bookingRepository;
+    private final BookingEventRepository bookingEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final int batchSize;
+    private final TimingWheel<Timer> wheel;
+    private final Cursor startsCursor = new Cursor(null, Long.MAX_VALUE);
+    private final Cursor endsCursor = new Cursor(null, Long.MAX_VALUE);
+    // таймеры бронирований, подтвержденных за еще не загруженной границей окна во время подгрузки
+    private final List<Timer> scheduledDuringLoad = new ArrayList<>();
+    private volatile boolean started;
+    private boolean loading;
+
+    @Autowired
+    public BookingLifecycleScheduler(BookingRepository bookingRepository,
+                                     BookingEventRepository bookingEventRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${shareit.bookings.lifecycle.enabled:true}") boolean enabled,
+                                     @Value("${shareit.bookings.lifecycle.tick-millis:1000}") long tickMillis,
+                                     @Value("${shareit.bookings.lifecycle.wheel-size:4096}") int wheelSize,
+                                     @Value("${shareit.bookings.lifecycle.capacity:1000000}") int capacity,
+                                     @Value("${shareit.bookings.lifecycle.horizon-minutes:360}") long horizonMinutes,
+                                     @Value("${shareit.bookings.lifecycle.batch-size:1000}") int batchSize) {
+        this(bookingRepository, bookingEventRepository, eventPublisher, Clock.systemDefaultZone(), enabled,
+                tickMillis, wheelSize, capacity, Duration.ofMinutes(horizonMinutes), batchSize);
+    }
+
+    BookingLifecycleScheduler(BookingRepository bookingRepository, BookingEventRepository bookingEventRepository,
+                              ApplicationEventPublisher eventPublisher, Clock clock, boolean enabled, long tickMillis,
+                              int wheelSize, int capacity, Duration horizon, int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingEventRepository = bookingEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tickMillis, wheelSize, capacity, clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime lastStarted = bookingEventRepository.findLastOccurredAt(BookingEventType.STARTED);
+        LocalDateTime lastEnded = bookingEventRepository.findLastOccurredAt(BookingEventType.ENDED);
+        synchronized (this) {
+            // события, наступившие после последнего сохраненного, в том числе пока сервер был остановлен,
+            // загружаются с прошедшим сроком и срабатывают на ближайшем тике; уже сохраненные отсеивает fire
+            moveToLastEvent(startsCursor, lastStarted, now);
+            moveToLastEvent(endsCursor, lastEnded, now);
+            started = true;
+        }
+        refill();
+        log.info("Планировщик бронирований восстановлен, ожидающих таймеров: {}", wheel.size());
+    }
+
+    /**
+     * Сдвигает окно до now + horizon. Запросы к базе идут без монитора, чтобы не задерживать {@link #schedule},
+     * монитор берется только на вставку пачки в колесо и сдвиг границы.
+     */
+    @Scheduled(fixedDelayString = "${shareit.bookings.lifecycle.refill-millis:60000}")
+    public void refill() {
+        synchronized (this) {
+            if (!started || loading) {
+                return;
+            }
+            loading = true;
+        }
+        try {
+            LocalDateTime to = LocalDateTime.now(clock).plus(horizon);
+            load(BookingEventType.STARTED, startsCursor, to);
+            load(BookingEventType.ENDED, endsCursor, to);
+        } finally {
+            synchronized (this) {
+                // не попавшие в окно таймеры подхватит следующая подгрузка
+                scheduledDuringLoad.clear();
+                loading = false;
+            }
+        }
+    }
+
+    /**
+     * Добавляет таймеры только что подтвержденного бронирования, если его даты попадают в уже загруженное окно.
+     * Более поздние даты подхватит очередная подгрузка окна.
+     */
+    public synchronized void schedule(Booking booking) {
+        if (!started || booking.getStatus() != BookingStatus.APPROVED) {
+            return;
+        }
+        for (BookingEventType type : BookingEventType.values()) {
+            Timer timer = timerOf(booking, type);
+            if (cursorOf(type).covers(timer.getAt(), booking.getId())) {
+                if (!schedule(timer)) {
+                    log.warn("Колесо таймеров заполнено, событие {} бронирования с id={} не запланировано", type, booking.getId());
+                }
+            } else if (loading) {
+                // пачка, которая сдвинет границу за это бронирование, могла быть прочитана до его подтверждения
+                scheduledDuringLoad.add(timer);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${shareit.bookings.lifecycle.tick-millis:1000}")
+    public void tick() {
+        if (!started) {
+            return;
+        }
+        List<Timer> due = wheel.advance(clock.millis());
+        if (!due.isEmpty()) {
+            fire(new LinkedHashSet<>(due));
+        }
+    }
+
+    public int pendingTimers() {
+        return wheel.size();
+    }
+
+    private void load(BookingEventType type, Cursor cursor, LocalDateTime to) {
+        List<Booking> batch;
+        do {
+            // границу меняет только подгрузка, поэтому читать ее можно без монитора
+            PageRequest page = PageRequest.of(0, batchSize);
+            batch = type == BookingEventType.STARTED
+                    ? bookingRepository.findStartingBetween(BookingStatus.APPROVED, cursor.time, cursor.id, to, page)
+                    : bookingRepository.findEndingBetween(BookingStatus.APPROVED, cursor.time, cursor.id, to, page);
+            if (!insert(type, cursor, batch, batch.size() < batchSize ? to : null)) {
+                log.warn("Колесо таймеров заполнено, загрузка событий {} остановлена на {}", type, cursor.time);
+                return;
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Вставляет пачку в колесо и сдвигает границу, на последней пачке до to.
+     * Таймеры, подтвержденные за время чтения пачки и теперь попавшие в окно, ставятся тут же.
+     */
+    private synchronized boolean insert(BookingEventType type, Cursor cursor, List<Booking> batch, LocalDateTime to) {
+        for (Booking booking : batch) {
+            if (!schedule(timerOf(booking, type))) {
+                return false;
+            }
+            cursor.moveTo(timeOf(booking, type), booking.getId());
+        }
+        if (to != null) {
+            cursor.moveTo(to, Long.MAX_VALUE);
+        }
+        Iterator<Timer> deferred = scheduledDuringLoad.iterator();
+        while (deferred.hasNext()) {
+            Timer timer = deferred.next();
+            if (timer.getType() == type && cursor.covers(timer.getAt(), timer.getBookingId())) {
+                deferred.remove();
+                if (!schedule(timer)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ставит границу перед бронированиями со временем последнего сохраненного события, чтобы дозагрузить
+     * события того же момента, не попавшие в базу; без сохраненных событий граница — текущий момент.
+     */
+    private static void moveToLastEvent(Cursor cursor, LocalDateTime lastOccurredAt, LocalDateTime now) {
+        if (lastOccurredAt == null) {
+            cursor.moveTo(now, Long.MAX_VALUE);
+        } else {
+            cursor.moveTo(lastOccurredAt, Long.MIN_VALUE);
+        }
+    }
+
+    private Cursor cursorOf(BookingEventType type) {
+        return type == BookingEventType.STARTED ? startsCursor : endsCursor;
+    }
+
+    private Timer timerOf(Booking booking, BookingEventType type) {
+        return new Timer(booking.getId(), booking.getItem().getId(), type, timeOf(booking, type));
+    }
+
+    private boolean schedule(Timer timer) {
+        return wheel.schedule(timer, timer.getAt().atZone(clock.getZone()).toInstant().toEpochMilli());
+    }
+
+    private void fire(Collection<Timer> timers) {
+        Set<Long> bookingIds = timers.stream().map(Timer::getBookingId).collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findAllById(bookingIds)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        // после перезапуска граница окна стоит на последнем сохраненном событии, и его таймеры ставятся повторно
+        Set<Timer> fired = bookingEventRepository.findByBookingIdIn(bookingIds).stream()
+                .map(event -> new Timer(event.getBookingId(), event.getItemId(), event.getType(), event.getOccurredAt()))
+                .collect(Collectors.toSet());
+        List<BookingEvent> events = new ArrayList<>();
+        for (Timer timer : timers) {
+            Booking booking = bookings.get(timer.getBookingId());
+            // бронирование могли удалить или перенести после постановки таймера
+            if (booking != null && booking.getStatus() == BookingStatus.APPROVED && timer.getAt().equals(timeOf(booking, timer.getType()))
+                    && !fired.contains(timer)) {
+                events.add(new BookingEvent(null, timer.getBookingId(), timer.getItemId(), timer.getType(), timer.getAt()));
+            }
+        }
+        bookingEventRepository.saveAll(events).forEach(eventPublisher::publishEvent);
+        log.debug("Наступило событий бронирований: {} из {} таймеров", events.size(), timers.size());
+    }
+
+    private static LocalDateTime timeOf(Booking booking, BookingEventType type) {
+        return type == BookingEventType.STARTED ? booking.getStart() : booking.getEnd();
+    }
+
+    @Data
+    private static class Timer {
+        private final Long bookingId;
+        private final Long itemId;
+        private final BookingEventType type;
+        private final LocalDateTime at;
+    }
+
+    /**
+     * Граница загруженного окна: все бронирования до (time, id) включительно уже в колесе.
+     */
+    @AllArgsConstructor
+    private static class Cursor {
+        private LocalDateTime time;
+        private long id;
+
+        private void moveTo(LocalDateTime time, long id) {
+            this.time = time;
+            this.id = id;
+        }
+
+        private boolean covers(LocalDateTime at, long bookingId) {
+            return at.isBefore(time) || at.isEqual(time) && bookingId <= id;
+        }
+    }
+}
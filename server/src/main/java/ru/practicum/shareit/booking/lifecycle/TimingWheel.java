@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Хешированное колесо таймеров: задача со сроком попадает в ячейку по номеру тика срока
+ * по модулю числа ячеек и хранит число оставшихся оборотов колеса.
+ * Добавление — O(1) из любого потока: задача кладется в очередь и раскладывается по ячейкам
+ * при следующем повороте. Поворачивает колесо один поток, на каждом тике он обходит одну ячейку.
+ * Число ожидающих задач ограничено capacity, сверх него schedule возвращает false.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final int capacity;
+    private final List<ArrayDeque<Timeout<T>>> buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long tick;
+
+    public TimingWheel(long tickMillis, int wheelSize, int capacity, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Параметры колеса таймеров должны быть положительными");
+        }
+        int normalizedSize = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = normalizedSize - 1;
+        this.capacity = capacity;
+        this.buckets = new ArrayList<>(normalizedSize);
+        for (int i = 0; i < normalizedSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    public boolean schedule(T task, long deadlineMillis) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        pending.add(new Timeout<>(task, Math.max(deadlineMillis - startMillis, 0) / tickMillis));
+        return true;
+    }
+
+    /**
+     * Поворачивает колесо до момента nowMillis и возвращает задачи, срок которых наступил.
+     * Вызывается только из одного потока.
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (tick <= targetTick) {
+            transferPending();
+            ArrayDeque<Timeout<T>> bucket = buckets.get((int) (tick & mask));
+            for (int i = bucket.size(); i > 0; i--) {
+                Timeout<T> timeout = bucket.poll();
+                if (timeout.remainingRounds <= 0) {
+                    expired.add(timeout.task);
+                } else {
+                    timeout.remainingRounds--;
+                    bucket.add(timeout);
+                }
+            }
+            tick++;
+        }
+        size.addAndGet(-expired.size());
+        return expired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            long deadlineTick = Math.max(timeout.deadlineTick, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private static final class Timeout<T> {
+        private final T task;
+        private final long deadlineTick;
+        private long remainingRounds;
+
+        private Timeout(T task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Наступившее событие жизненного цикла подтвержденного бронирования: начало или окончание аренды.
+ */
+@Entity
+@Table(name = "booking_events")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingEventType type;
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
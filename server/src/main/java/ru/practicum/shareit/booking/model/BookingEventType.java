@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingEventType {
+    STARTED,
+    ENDED
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * Роль пользователя, чьи бронирования запрашиваются: арендатор или владелец вещей.
+ */
+public enum BookingRole {
+    BOOKER,
+    OWNER
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.exception.UnsupportedException;
+
+import java.util.Locale;
+
+/**
+ * Состояние, по которому фильтруются списки бронирований.
+ */
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        try {
+            return valueOf(state.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedException("{\"error\":\"Unknown state: " + state + "\"}", state);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Обслуживание секций таблицы бронирований на PostgreSQL: заранее создает месячные секции
+ * и сливает секции давно закончившихся лет в годовые архивные. Сами операции выполняют функции
+ * create_booking_partitions и archive_booking_partitions из миграции V10.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.bookings.partitions.enabled", havingValue = "true")
+@Slf4j
+public class BookingPartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+    private final String archiveTablespace;
+
+    public BookingPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       @Value("${shareit.bookings.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${shareit.bookings.partitions.archive-after-months:12}") int archiveAfterMonths,
+                                       @Value("${shareit.bookings.partitions.archive-tablespace:}") String archiveTablespace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.archiveTablespace = archiveTablespace;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.bookings.partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        Integer created = jdbcTemplate.queryForObject("SELECT create_booking_partitions(?, ?)", Integer.class,
+                currentMonth, monthsAhead + 1);
+        Integer archived = jdbcTemplate.queryForObject("SELECT archive_booking_partitions(?, CAST(? AS TEXT))", Integer.class,
+                currentMonth.minusMonths(archiveAfterMonths), archiveTablespace.isBlank() ? null : archiveTablespace);
+        log.info("Обслуживание секций бронирований: создано месячных секций {}, архивировано лет {}", created, archived);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    List<BookingEvent> findByBookingIdOrderByIdAsc(Long bookingId);
+
+    List<BookingEvent> findByBookingIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Время последнего сохраненного события типа type или null, если таких событий еще не было.
+     */
+    @Query("SELECT max(e.occurredAt) FROM BookingEvent e WHERE e.type = :type")
+    LocalDateTime findLastOccurredAt(BookingEventType type);
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.h2.tools.TriggerAdapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Триггер H2 с той же проверкой, что bookings_no_overlap на PostgreSQL (V13): ожидающее или подтвержденное
+ * бронирование не может пересекаться с другим таким же бронированием вещи. Вместо рекомендательной блокировки
+ * берется блокировка строки вещи до конца транзакции, поэтому конкурентная вставка дождется коммита и увидит строку.
+ */
+public class BookingNoOverlapTrigger extends TriggerAdapter {
+
+    /**
+     * Код ошибки нарушения ограничения исключения, как у PostgreSQL.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    @Override
+    public void fire(Connection connection, ResultSet oldRow, ResultSet newRow) throws SQLException {
+        String status = newRow.getString("STATUS");
+        if (!"WAITING".equals(status) && !"APPROVED".equals(status)) {
+            return;
+        }
+        long itemId = newRow.getLong("ITEM_ID");
+        long bookingId = newRow.getLong("ID");
+        Timestamp start = newRow.getTimestamp("START_DATE");
+        Timestamp end = newRow.getTimestamp("END_DATE");
+        try (PreparedStatement lock = connection.prepareStatement("SELECT id FROM items WHERE id = ? FOR UPDATE")) {
+            lock.setLong(1, itemId);
+            lock.executeQuery().close();
+        }
+        try (PreparedStatement overlap = connection.prepareStatement(
+                "SELECT 1 FROM bookings WHERE item_id = ? AND id <> ? AND status IN ('WAITING', 'APPROVED') " +
+                        "AND start_date < ? AND end_date > ?")) {
+            overlap.setLong(1, itemId);
+            overlap.setLong(2, bookingId);
+            overlap.setTimestamp(3, end);
+            overlap.setTimestamp(4, start);
+            try (ResultSet resultSet = overlap.executeQuery()) {
+                if (resultSet.next()) {
+                    throw new SQLException("Бронирование " + bookingId + " пересекается с другим бронированием вещи " + itemId,
+                            EXCLUSION_VIOLATION);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    /**
+     * Страница бронирований пользователя в роли role с состоянием state после курсора (afterStart, afterId),
+     * упорядоченная по убыванию даты начала и id.
+     */
+    List<BookingDto> findBookings(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                  LocalDateTime afterStart, Long afterId, Pageable pageable);
+}
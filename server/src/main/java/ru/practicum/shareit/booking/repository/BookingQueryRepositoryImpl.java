@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Списки бронирований по паре (роль, состояние). Текст запроса для каждой пары собирается один раз,
+ * поэтому Hibernate разбирает его единожды и берет план из кэша, а база получает один вид
+ * подготовленного запроса на пару.
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    private static final String SELECT_BOOKING_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.owner.id, i.request.id, " +
+            "u.id, u.name, u.email) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
+    private static final String SEEK_AND_ORDER = "AND (b.start < :afterStart OR (b.start = :afterStart AND b.id < :afterId)) " +
+            "ORDER BY b.start DESC, b.id DESC";
+    private static final Map<BookingRole, Map<BookingState, String>> QUERIES = buildQueries();
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BookingDto> findBookings(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                         LocalDateTime afterStart, Long afterId, Pageable pageable) {
+        TypedQuery<BookingDto> query = em.createQuery(QUERIES.get(role).get(state), BookingDto.class)
+                .setParameter("userId", userId)
+                .setParameter("afterStart", afterStart)
+                .setParameter("afterId", afterId);
+        if (dependsOnTime(state)) {
+            query.setParameter("currentTime", currentTime);
+        }
+        BookingStatus status = status(state);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    private static Map<BookingRole, Map<BookingState, String>> buildQueries() {
+        Map<BookingRole, Map<BookingState, String>> queries = new EnumMap<>(BookingRole.class);
+        for (BookingRole role : BookingRole.values()) {
+            Map<BookingState, String> byState = new EnumMap<>(BookingState.class);
+            for (BookingState state : BookingState.values()) {
+                byState.put(state, SELECT_BOOKING_DTO + "WHERE " + userColumn(role) + " = :userId "
+                        + statePredicate(state) + SEEK_AND_ORDER);
+            }
+            queries.put(role, byState);
+        }
+        return queries;
+    }
+
+    private static String userColumn(BookingRole role) {
+        return role == BookingRole.OWNER ? "b.ownerId" : "u.id";
+    }
+
+    /**
+     * Условие b.end > :currentTime для будущих бронирований следует из b.start > :currentTime и нужно только
+     * для отсечения архивных секций на PostgreSQL, где бронирования секционированы по дате окончания.
+     */
+    private static String statePredicate(BookingState state) {
+        switch (state) {
+            case CURRENT:
+                return "AND b.start < :currentTime AND b.end > :currentTime ";
+            case PAST:
+                return "AND b.end < :currentTime ";
+            case FUTURE:
+                return "AND b.start > :currentTime AND b.end > :currentTime ";
+            case WAITING:
+            case REJECTED:
+                return "AND b.status = :status ";
+            default:
+                return "";
+        }
+    }
+
+    private static boolean dependsOnTime(BookingState state) {
+        return state == BookingState.CURRENT || state == BookingState.PAST || state == BookingState.FUTURE;
+    }
+
+    private static BookingStatus status(BookingState state) {
+        switch (state) {
+            case WAITING:
+                return BookingStatus.WAITING;
+            case REJECTED:
+                return BookingStatus.REJECTED;
+            default:
+                return null;
+        }
+    }
+}
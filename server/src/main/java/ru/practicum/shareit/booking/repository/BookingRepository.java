@@ -1,58 +1,78 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId ORDER BY b.start DESC")
-    Page<Booking> findByBookerIdOrderByStartDesc(Long userId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId ORDER BY b.start DESC")
-    Page<Booking> findByItemOwnerId(Long ownerId, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start < :currentTime AND b.end > :currentTime")
-    Page<Booking> findCurrentBookings(Long userId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start < :currentTime AND b.end > :currentTime")
-    Page<Booking> findCurrentOwnerBookings(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.end < :currentTime ORDER BY b.start DESC")
-    Page<Booking> findPastBookings(Long userId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.end < :currentTime ORDER BY b.start DESC")
-    Page<Booking> findPastOwnerBookings(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.start > :currentTime ORDER BY b.start DESC")
-    Page<Booking> findFutureBookings(Long userId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start > :currentTime ORDER BY b.start DESC")
-    Page<Booking> findFutureOwnerBookings(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :userId AND b.status = :status ORDER BY b.start DESC")
-    Page<Booking> findByBookerIdAndStatus(Long userId, BookingStatus status, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.status = :status ORDER BY b.start DESC")
-    Page<Booking> findOwnerBookingsByStatus(Long ownerId, BookingStatus status, Pageable pageable);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start <= :currentTime AND b.status = :status ORDER BY b.end DESC")
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository, BookingStatusBatchRepository {
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Последнее бронирование каждой вещи: бронирование с максимальной датой окончания среди начавшихся.
+     * При совпадении дат у вещи может вернуться несколько строк, они упорядочены по id.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start <= :currentTime AND b.status = :status " +
+            "AND b.end = (SELECT MAX(l.end) FROM Booking l WHERE l.item = b.item AND l.start <= :currentTime AND l.status = :status) " +
+            "ORDER BY b.id ASC")
     List<Booking> findLastBookingsByItemIds(List<Long> itemIds, LocalDateTime currentTime, BookingStatus status);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start >= :currentTime AND b.status = :status ORDER BY b.start ASC")
+    /**
+     * Следующее бронирование каждой вещи: бронирование с минимальной датой начала среди будущих.
+     * При совпадении дат у вещи может вернуться несколько строк, они упорядочены по id.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.start >= :currentTime AND b.status = :status " +
+            "AND b.start = (SELECT MIN(n.start) FROM Booking n WHERE n.item = b.item AND n.start >= :currentTime AND n.status = :status) " +
+            "ORDER BY b.id ASC")
     List<Booking> findNextBookingsByItemIds(List<Long> itemIds, LocalDateTime currentTime, BookingStatus status);
 
-    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status, LocalDateTime end);
-
-    Booking findFirstByItemIdAndStartLessThanEqualAndStatusOrderByEndDesc(Long itemId, LocalDateTime start, BookingStatus status);
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :rangeEnd AND b.end > :rangeStart")
+    boolean existsOverlapping(Long itemId, LocalDateTime rangeStart, LocalDateTime rangeEnd, Collection<BookingStatus> statuses);
+
+    /**
+     * Есть ли у вещи другое, кроме bookingId, бронирование в статусах statuses, пересекающее период.
+     */
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.id <> :bookingId AND b.status IN :statuses AND b.start < :rangeEnd AND b.end > :rangeStart")
+    boolean existsOverlappingOther(Long itemId, Long bookingId, LocalDateTime rangeStart, LocalDateTime rangeEnd, Collection<BookingStatus> statuses);
+
+    /**
+     * Меняет статус, только если бронирование все еще в прочитанном статусе expected.
+     * Возвращает 0, если статус успел изменить другой запрос.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 WHERE b.id = :id AND b.status = :expected")
+    int updateStatus(Long id, BookingStatus expected, BookingStatus status);
+
+    /**
+     * Бронирования со статусом status, начинающиеся после (from, afterId) и не позже to, в порядке (start, id).
+     */
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.start <= :to " +
+            "AND (b.start > :from OR (b.start = :from AND b.id > :afterId)) ORDER BY b.start ASC, b.id ASC")
+    List<Booking> findStartingBetween(BookingStatus status, LocalDateTime from, Long afterId, LocalDateTime to, Pageable pageable);
+
+    /**
+     * Бронирования со статусом status, заканчивающиеся после (from, afterId) и не позже to, в порядке (end, id).
+     */
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.end <= :to " +
+            "AND (b.end > :from OR (b.end = :from AND b.id > :afterId)) ORDER BY b.end ASC, b.id ASC")
+    List<Booking> findEndingBetween(BookingStatus status, LocalDateTime from, Long afterId, LocalDateTime to, Pageable pageable);
+
+    List<Booking> findByIdGreaterThanAndStatusInAndEndAfterOrderByIdAsc(Long id, Collection<BookingStatus> statuses, LocalDateTime end, Pageable pageable);
 
-    Booking findFirstByItemIdAndStartGreaterThanEqualAndStatusOrderByStartAsc(Long itemId, LocalDateTime start, BookingStatus status);
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status, LocalDateTime end);
 }
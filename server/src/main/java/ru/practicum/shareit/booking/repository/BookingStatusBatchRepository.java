@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.List;
+import java.util.Map;
+
+public interface BookingStatusBatchRepository {
+
+    /**
+     * Меняет статусы бронирований владельца одним пакетом JDBC, если их версии совпадают с прочитанными в versions.
+     * Возвращает для каждого бронирования в порядке обхода statuses, изменилась ли его строка.
+     */
+    List<Boolean> updateStatuses(Long ownerId, Map<Long, BookingStatus> statuses, Map<Long, Long> versions);
+}
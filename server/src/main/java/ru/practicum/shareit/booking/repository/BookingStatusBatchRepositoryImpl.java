@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Session;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class BookingStatusBatchRepositoryImpl implements BookingStatusBatchRepository {
+
+    private static final String UPDATE_STATUS = "UPDATE bookings SET status = ?, version = version + 1 WHERE id = ? AND owner_id = ? AND version = ?";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Boolean> updateStatuses(Long ownerId, Map<Long, BookingStatus> statuses, Map<Long, Long> versions) {
+        List<Boolean> updated = new ArrayList<>(statuses.size());
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS)) {
+                for (Map.Entry<Long, BookingStatus> entry : statuses.entrySet()) {
+                    statement.setString(1, entry.getValue().name());
+                    statement.setLong(2, entry.getKey());
+                    statement.setLong(3, ownerId);
+                    statement.setLong(4, versions.get(entry.getKey()));
+                    statement.addBatch();
+                }
+                for (int count : statement.executeBatch()) {
+                    updated.add(count != 0);
+                }
+            }
+        });
+        return updated;
+    }
+}
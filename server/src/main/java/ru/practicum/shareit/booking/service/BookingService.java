@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -9,9 +13,17 @@ public interface BookingService {
 
     BookingDto updateBookingStatus(Long bookingId, Long userId, boolean approved);
 
+    List<BookingDecisionResultDto> updateBookingStatuses(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBooking(Long bookingId, Long userId);
 
     List<BookingDto> getUserBookings(Long userId, String state, int from, int size);
 
+    List<BookingDto> getUserBookings(Long userId, String state, String cursor, int size);
+
     List<BookingDto> getOwnerBookings(Long ownerId, String state, int from, int size);
+
+    List<BookingDto> getOwnerBookings(Long ownerId, String state, String cursor, int size);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, LocalDateTime end);
 }
@@ -2,26 +2,43 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.exception.UnsupportedException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.validation.Valid;
 import javax.validation.ValidationException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,9 +46,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Long FIRST_PAGE_ID = Long.MAX_VALUE;
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final BookingLifecycleScheduler bookingLifecycleScheduler;
 
     @Override
     @Transactional
@@ -54,9 +78,15 @@ public class BookingServiceImpl implements BookingService {
             log.error("Некорректные даты бронирования: start={}, end={}", bookingDto.getStart(), bookingDto.getEnd());
             throw new ValidationException("Дата начала бронирования должна быть раньше даты окончания");
         }
+        itemBookingLocks.lockUntilCompletion(item.getId());
+        if (bookingRepository.existsOverlapping(item.getId(), bookingDto.getStart(), bookingDto.getEnd(), ACTIVE_STATUSES)) {
+            log.error("Вещь с id={} уже забронирована на период start={}, end={}", item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+            throw new AlreadyExistsException("Вещь уже забронирована на эти даты");
+        }
         Booking booking = BookingMapper.toModel(bookingDto, item, booker);
         booking.setStatus(BookingStatus.WAITING);
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking = saveNonOverlapping(booking);
+        afterCommit(() -> itemAvailabilityIndex.add(savedBooking));
         log.debug("Бронирование успешно добавлено: {}", savedBooking);
         return BookingMapper.toBookingDto(savedBooking);
     }
@@ -73,10 +103,91 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() == BookingStatus.APPROVED) {
             throw new ValidationException("Бронирование уже подтверждено");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
-        log.debug("Статус бронирования успешно обновлен: {}", updatedBooking);
-        return BookingMapper.toBookingDto(updatedBooking);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // отклоненное бронирование могло потерять свой период, пока другое бронирование его заняло
+        if (status == BookingStatus.APPROVED) {
+            itemBookingLocks.lockUntilCompletion(booking.getItem().getId());
+            if (overlapsOtherBookings(booking)) {
+                log.error("Вещь с id={} уже забронирована на период бронирования с id={}", booking.getItem().getId(), bookingId);
+                throw new AlreadyExistsException("Вещь уже забронирована на эти даты");
+            }
+        }
+        int updated;
+        try {
+            updated = bookingRepository.updateStatus(bookingId, booking.getStatus(), status);
+        } catch (DataIntegrityViolationException e) {
+            log.error("База данных отклонила подтверждение пересекающегося бронирования с id={}", bookingId, e);
+            throw new AlreadyExistsException("Вещь уже забронирована на эти даты");
+        }
+        if (updated == 0) {
+            log.error("Статус бронирования с id={} изменен параллельным запросом", bookingId);
+            throw new AlreadyExistsException("Статус бронирования уже изменен другим запросом");
+        }
+        booking.setStatus(status);
+        afterCommit(() -> {
+            itemAvailabilityIndex.add(booking);
+            bookingLifecycleScheduler.schedule(booking);
+        });
+        log.debug("Статус бронирования успешно обновлен: {}", booking);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> updateBookingStatuses(Long userId, List<BookingDecisionDto> decisions) {
+        log.debug("Пакетное обновление статусов {} бронирований пользователем с id={}", decisions.size(), userId);
+        Map<Long, Booking> bookings = bookingRepository.findAllById(decisions.stream().map(BookingDecisionDto::getBookingId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, BookingDecisionResultDto> results = new LinkedHashMap<>();
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            if (results.containsKey(bookingId)) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId, "Решение по бронированию передано несколько раз"));
+                statuses.remove(bookingId);
+            } else if (booking == null) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId, "Бронирование не найдено"));
+            } else if (!userId.equals(booking.getOwnerId())) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId, "Пользователь не является владельцем вещи"));
+            } else if (booking.getStatus() == BookingStatus.APPROVED) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId, "Бронирование уже подтверждено"));
+            } else {
+                // место в ответе резервируется сразу, чтобы результаты шли в порядке запроса
+                results.put(bookingId, null);
+                statuses.put(bookingId, decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            }
+        }
+        rejectOverlappingApprovals(bookings, statuses, results);
+        List<Booking> updatedBookings = new ArrayList<>();
+        if (!statuses.isEmpty()) {
+            Map<Long, Long> versions = new HashMap<>();
+            statuses.keySet().forEach(bookingId -> versions.put(bookingId, bookings.get(bookingId).getVersion()));
+            Iterator<Boolean> updated;
+            try {
+                updated = bookingRepository.updateStatuses(userId, statuses, versions).iterator();
+            } catch (DataIntegrityViolationException e) {
+                log.error("База данных отклонила пакет с пересекающимися подтверждениями бронирований", e);
+                throw new AlreadyExistsException("Вещь уже забронирована на эти даты");
+            }
+            for (Map.Entry<Long, BookingStatus> entry : statuses.entrySet()) {
+                Long bookingId = entry.getKey();
+                if (updated.next()) {
+                    Booking booking = bookings.get(bookingId);
+                    updatedBookings.add(new Booking(bookingId, booking.getStart(), booking.getEnd(), booking.getItem(), booking.getBooker(), entry.getValue()));
+                    results.put(bookingId, BookingDecisionResultDto.updated(bookingId, entry.getValue()));
+                } else {
+                    results.put(bookingId, BookingDecisionResultDto.failed(bookingId, "Статус бронирования уже изменен другим запросом"));
+                }
+            }
+            afterCommit(() -> updatedBookings.forEach(booking -> {
+                itemAvailabilityIndex.add(booking);
+                bookingLifecycleScheduler.schedule(booking);
+            }));
+        }
+        log.debug("Пакетное обновление статусов завершено, обновлено {} из {}", updatedBookings.size(), decisions.size());
+        return new ArrayList<>(results.values());
     }
 
     @Override
@@ -95,32 +206,16 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> getUserBookings(Long userId, String state, int from, int size) {
         log.debug("Получение всех бронирований пользователя с id={} со статусом {}", userId, state);
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        LocalDateTime now = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Booking> bookings;
-        switch (state.toUpperCase()) {
-            case "CURRENT":
-                bookings = bookingRepository.findCurrentBookings(userId, now, pageable).getContent();
-                break;
-            case "PAST":
-                bookings = bookingRepository.findPastBookings(userId, now, pageable).getContent();
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findFutureBookings(userId, now, pageable).getContent();
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable).getContent();
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable).getContent();
-                break;
-            case "ALL":
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable).getContent();
-                break;
-            default:
-                throw new UnsupportedException("{\"error\":\"Unknown state: " + state + "\"}", state);
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return findBookings(BookingRole.BOOKER, userId, state, FIRST_PAGE_START, FIRST_PAGE_ID, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getUserBookings(Long userId, String state, String cursor, int size) {
+        log.debug("Получение бронирований пользователя с id={} со статусом {} после курсора {}", userId, state, cursor);
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        return findBookings(BookingRole.BOOKER, userId, state, pageCursor.requireSortKey(), pageCursor.getId(), PageRequest.of(0, size));
     }
 
     @Override
@@ -128,31 +223,88 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> getOwnerBookings(Long ownerId, String state, int from, int size) {
         log.debug("Получение всех бронирований владельца с id={} со статусом {}", ownerId, state);
         userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Владелец не найден"));
-        LocalDateTime now = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Booking> bookings;
-        switch (state.toUpperCase()) {
-            case "CURRENT":
-                bookings = bookingRepository.findCurrentOwnerBookings(ownerId, now, pageable).getContent();
-                break;
-            case "PAST":
-                bookings = bookingRepository.findPastOwnerBookings(ownerId, now, pageable).getContent();
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findFutureOwnerBookings(ownerId, now, pageable).getContent();
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findOwnerBookingsByStatus(ownerId, BookingStatus.WAITING, pageable).getContent();
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findOwnerBookingsByStatus(ownerId, BookingStatus.REJECTED, pageable).getContent();
-                break;
-            case "ALL":
-                bookings = bookingRepository.findByItemOwnerId(ownerId, pageable).getContent();
-                break;
-            default:
-                throw new UnsupportedException("{\"error\":\"Unknown state: " + state + "\"}", state);
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return findBookings(BookingRole.OWNER, ownerId, state, FIRST_PAGE_START, FIRST_PAGE_ID, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getOwnerBookings(Long ownerId, String state, String cursor, int size) {
+        log.debug("Получение бронирований владельца с id={} со статусом {} после курсора {}", ownerId, state, cursor);
+        userRepository.findById(ownerId).orElseThrow(() -> new NotFoundException("Владелец не найден"));
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        return findBookings(BookingRole.OWNER, ownerId, state, pageCursor.requireSortKey(), pageCursor.getId(), PageRequest.of(0, size));
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, LocalDateTime end) {
+        log.debug("Проверка доступности вещи с id={} на период start={}, end={}", itemId, start, end);
+        if (!start.isBefore(end)) {
+            log.error("Некорректный период проверки доступности: start={}, end={}", start, end);
+            throw new ValidationException("Дата начала периода должна быть раньше даты окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь не найдена");
+        }
+        boolean available = itemAvailabilityIndex.isFree(itemId, start, end);
+        LocalDateTime nextFreeStart = available ? start : itemAvailabilityIndex.findNextFreeStart(itemId, start, end);
+        return new ItemAvailabilityDto(itemId, start, end, available, nextFreeStart);
+    }
+
+    /**
+     * Блокирует вещи подтверждаемых в пакете бронирований и снимает с пакета подтверждения, которые пересекаются
+     * с другими активными бронированиями вещи или с подтверждениями, принятыми раньше в этом же пакете.
+     */
+    private void rejectOverlappingApprovals(Map<Long, Booking> bookings, Map<Long, BookingStatus> statuses,
+                                            Map<Long, BookingDecisionResultDto> results) {
+        List<Long> approvedIds = statuses.entrySet().stream()
+                .filter(entry -> entry.getValue() == BookingStatus.APPROVED)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (approvedIds.isEmpty()) {
+            return;
+        }
+        itemBookingLocks.lockAllUntilCompletion(approvedIds.stream().map(id -> bookings.get(id).getItem().getId()).collect(Collectors.toList()));
+        List<Booking> accepted = new ArrayList<>();
+        for (Long bookingId : approvedIds) {
+            Booking booking = bookings.get(bookingId);
+            boolean overlapsBatch = accepted.stream().anyMatch(other -> other.getItem().getId().equals(booking.getItem().getId())
+                    && other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()));
+            if (overlapsBatch || overlapsOtherBookings(booking)) {
+                results.put(bookingId, BookingDecisionResultDto.failed(bookingId, "Вещь уже забронирована на эти даты"));
+                statuses.remove(bookingId);
+            } else {
+                accepted.add(booking);
+            }
+        }
+    }
+
+    private boolean overlapsOtherBookings(Booking booking) {
+        return bookingRepository.existsOverlappingOther(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd(), ACTIVE_STATUSES);
+    }
+
+    private Booking saveNonOverlapping(Booking booking) {
+        try {
+            return bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) {
+            log.error("База данных отклонила пересекающееся бронирование вещи с id={}", booking.getItem().getId(), e);
+            throw new AlreadyExistsException("Вещь уже забронирована на эти даты");
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private List<BookingDto> findBookings(BookingRole role, Long userId, String state, LocalDateTime afterStart, Long afterId, Pageable pageable) {
+        return bookingRepository.findBookings(role, userId, BookingState.from(state), LocalDateTime.now(), afterStart, afterId, pageable);
     }
 }
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки бронирований по id вещи: бронирования одной вещи выполняются по очереди,
+ * разные вещи почти никогда не делят блокировку. Блокировка держится до завершения транзакции,
+ * чтобы следующая проверка пересечений уже видела зафиксированное бронирование.
+ */
+@Component
+public class ItemBookingLocks {
+    private static final int STRIPES = 256;
+
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public ItemBookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи с id=" + itemId + " требует активной транзакции");
+        }
+        lockStripeUntilCompletion(stripe(itemId));
+    }
+
+    /**
+     * Блокирует несколько вещей сразу. Полосы берутся по возрастанию номера, поэтому два пакета с общими вещами
+     * не могут ждать друг друга по кругу.
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещей с id=" + itemIds + " требует активной транзакции");
+        }
+        itemIds.stream()
+                .map(ItemBookingLocks::stripe)
+                .distinct()
+                .sorted()
+                .forEach(this::lockStripeUntilCompletion);
+    }
+
+    private void lockStripeUntilCompletion(int stripe) {
+        Lock lock = locks[stripe];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private static int stripe(Long itemId) {
+        long hash = itemId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 56) & (STRIPES - 1);
+    }
+}
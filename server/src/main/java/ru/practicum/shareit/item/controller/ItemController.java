@@ -2,11 +2,13 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -41,11 +43,15 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> getItems(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
-                                  @RequestParam(defaultValue = "0") int from,
-                                  @RequestParam(defaultValue = "10") int size) {
-        log.debug("Получен запрос на получение всех вещей пользователя с id={}, с параметрами from={}, size={}", userId, from, size);
-        return itemServiceImpl.getItems(userId, from, size);
+    public ResponseEntity<List<ItemDto>> getItems(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
+                                                  @RequestParam(defaultValue = "0") int from,
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на получение всех вещей пользователя с id={}, с параметрами from={}, size={}, cursor={}", userId, from, size, cursor);
+        List<ItemDto> items = cursor != null
+                ? itemServiceImpl.getItems(userId, cursor, size)
+                : itemServiceImpl.getItems(userId, from, size);
+        return PageCursor.withNextCursor(items, size, item -> PageCursor.of(item.getId()));
     }
 
     @DeleteMapping("/{itemId}")
@@ -55,11 +61,15 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text,
-                                     @RequestParam(defaultValue = "0") int from,
-                                     @RequestParam(defaultValue = "10") int size) {
-        log.debug("Получен запрос на поиск вещей с текстом: {}, с параметрами from={}, size={}", text, from, size);
-        return itemServiceImpl.searchItems(text, from, size);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                                     @RequestParam(defaultValue = "0") int from,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на поиск вещей с текстом: {}, с параметрами from={}, size={}, cursor={}", text, from, size, cursor);
+        List<ItemDto> items = cursor != null
+                ? itemServiceImpl.searchItems(text, cursor, size)
+                : itemServiceImpl.searchItems(text, from, size);
+        return PageCursor.withNextCursor(items, size, item -> PageCursor.of(item.getId()));
     }
 
     @PostMapping("/{itemId}/comment")
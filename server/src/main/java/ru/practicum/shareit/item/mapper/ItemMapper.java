@@ -17,14 +17,17 @@ import java.util.stream.Collectors;
 public class ItemMapper {
 
     public ItemDto toItemDto(Item item, List<Comment> comments, Booking lastBooking, Booking nextBooking) {
-        List<CommentDto> commentDtos = comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-
         BookingGetDto lastBookingDto = (lastBooking != null) ?
                 new BookingGetDto(lastBooking.getId(), lastBooking.getBooker().getId()) : null;
         BookingGetDto nextBookingDto = (nextBooking != null) ?
                 new BookingGetDto(nextBooking.getId(), nextBooking.getBooker().getId()) : null;
+        return toItemDto(item, comments, lastBookingDto, nextBookingDto);
+    }
+
+    public ItemDto toItemDto(Item item, List<Comment> comments, BookingGetDto lastBookingDto, BookingGetDto nextBookingDto) {
+        List<CommentDto> commentDtos = comments.stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
 
         return new ItemDto(
                 item.getId(),
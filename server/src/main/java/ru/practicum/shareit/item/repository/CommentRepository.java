@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -10,6 +12,12 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemId(Long itemId);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("select c from Comment c where c.item.id = :itemId")
+    List<Comment> findWithAuthorByItemId(Long itemId);
+
+    @EntityGraph(Comment.WITH_AUTHOR)
+    @Query("select c from Comment c where c.item.id in :itemIds")
+    List<Comment> findWithAuthorByItemIdIn(List<Long> itemIds);
 }
 
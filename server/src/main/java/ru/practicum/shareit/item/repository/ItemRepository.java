@@ -5,19 +5,57 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     Page<Item> findByOwnerId(Long ownerId, Pageable pageable);
 
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long id, Pageable pageable);
+
     @Query("select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
             "and i.available = true")
     Page<Item> search(String text, Pageable pageable);
 
-    List<Item> findByRequestId(Long requestId);
+    @Query("select i from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available = true and i.id > ?2 " +
+            "order by i.id")
+    List<Item> searchAfter(String text, Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.search_vector @@ plainto_tsquery('russian', :text) " +
+            "AND i.is_available = true AND i.id > :afterId " +
+            "ORDER BY i.id", nativeQuery = true)
+    List<Item> fullTextSearch(String text, Long afterId, Pageable pageable);
+
+    @Query("select i from Item i where i.request.id in :requestIds order by i.id")
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Вещь вместе с id и бронирующим последнего и следующего бронирования одной строкой.
+     * Бронирования присоединяются, только если userId - владелец вещи.
+     * При совпадении дат первой идет строка с меньшими id, как в {@link ru.practicum.shareit.booking.repository.BookingRepository#findLastBookingsByItemIds}.
+     * Результат: [Item, lastId, lastBookerId, nextId, nextBookerId].
+     */
+    @Query("select i, lb.id, lb.booker.id, nb.id, nb.booker.id from Item i " +
+            "left join Booking lb on lb.item = i and i.owner.id = :userId " +
+            "and lb.status = :status and lb.start <= :now " +
+            "and lb.end = (select max(b.end) from Booking b " +
+            "where b.item = i and b.status = :status and b.start <= :now) " +
+            "left join Booking nb on nb.item = i and i.owner.id = :userId " +
+            "and nb.status = :status and nb.start >= :now " +
+            "and nb.start = (select min(b.start) from Booking b " +
+            "where b.item = i and b.status = :status and b.start >= :now) " +
+            "where i.id = :itemId " +
+            "order by lb.id asc, nb.id asc")
+    List<Object[]> findItemWithBookings(Long itemId, Long userId, LocalDateTime now, BookingStatus status);
 }
@@ -0,0 +1,332 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Триграммный индекс доступных вещей по названию и описанию.
+ * Сужает множество кандидатов по триграммам запроса и затем проверяет совпадение подстроки
+ * без учета регистра, поэтому возвращает те же страницы, что и запрос {@link ItemRepository#search}.
+ * Для запросов из одного-двух символов хранятся списки вещей по каждому символу и паре символов:
+ * такой список и есть ответ, перебирать словарь триграмм не нужно.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSearchIndex implements ItemSearchEngine {
+
+    private static final int WARM_UP_BATCH_SIZE = 1000;
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // вещи, измененные или удаленные во время построения индекса: прочитанная до этого версия устарела
+    private Set<Long> changedDuringWarmUp;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        log.debug("Построение поискового индекса вещей");
+        setChangedDuringWarmUp(new HashSet<>());
+        try {
+            Page<Item> page = itemRepository.findAll(PageRequest.of(0, WARM_UP_BATCH_SIZE, Sort.by("id")));
+            while (true) {
+                indexUnchanged(page.getContent());
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = itemRepository.findAll(page.nextPageable());
+            }
+        } finally {
+            setChangedDuringWarmUp(null);
+        }
+        log.debug("Поисковый индекс построен, проиндексировано вещей: {}", size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return loadItems(findIds(text, (long) (from / size) * size, size));
+    }
+
+    @Override
+    public List<Item> searchAfter(String text, long afterId, int size) {
+        return loadItems(findIdsAfter(text, afterId, size));
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            markChanged(item.getId());
+            putDocument(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            markChanged(itemId);
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> findIds(String text, long offset, int limit) {
+        return findIds(text, Long.MIN_VALUE, offset, limit);
+    }
+
+    public List<Long> findIdsAfter(String text, long afterId, int limit) {
+        return findIds(text, afterId, 0, limit);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> findIds(String text, long afterId, long offset, int limit) {
+        String query = fold(text);
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>(limit);
+            if (query.length() < GRAM_LENGTH) {
+                collectShortQueryMatches(query, afterId, offset, limit, result);
+            } else {
+                collectMatches(query, afterId, offset, limit, result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Item> loadItems(List<Long> itemIds) {
+        return itemRepository.findAllById(itemIds).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    private void collectMatches(String query, long afterId, long offset, int limit, List<Long> result) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList smallest = lists.get(0);
+        long skipped = 0;
+        for (int i = smallest.indexAfter(afterId); i < smallest.size() && result.size() < limit; i++) {
+            long itemId = smallest.get(i);
+            if (!containsInAll(lists, itemId) || !documents.get(itemId).matches(query)) {
+                continue;
+            }
+            if (skipped++ >= offset) {
+                result.add(itemId);
+            }
+        }
+    }
+
+    /**
+     * Список вещей по короткому запросу содержит ровно вещи с этой подстрокой, поэтому страница
+     * берется из него по позиции без проверки документов.
+     */
+    private void collectShortQueryMatches(String query, long afterId, long offset, int limit, List<Long> result) {
+        PostingList list = postings.get(query);
+        if (list == null) {
+            return;
+        }
+        long first = list.indexAfter(afterId) + offset;
+        for (long i = first; i < list.size() && result.size() < limit; i++) {
+            result.add(list.get((int) i));
+        }
+    }
+
+    private static boolean containsInAll(List<PostingList> lists, long itemId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(itemId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void indexUnchanged(List<Item> items) {
+        lock.writeLock().lock();
+        try {
+            for (Item item : items) {
+                if (!changedDuringWarmUp.contains(item.getId())) {
+                    putDocument(item);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setChangedDuringWarmUp(Set<Long> changed) {
+        lock.writeLock().lock();
+        try {
+            changedDuringWarmUp = changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markChanged(Long itemId) {
+        if (changedDuringWarmUp != null) {
+            changedDuringWarmUp.add(itemId);
+        }
+    }
+
+    private void putDocument(Item item) {
+        removeDocument(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        IndexedItem document = new IndexedItem(fold(item.getName()), fold(item.getDescription()));
+        documents.put(item.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).add(item.getId());
+        }
+    }
+
+    private void removeDocument(Long itemId) {
+        IndexedItem document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(itemId);
+            if (list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String fold(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Все подстроки value длиной от одного до трех символов: по ним строятся списки вещей индекса.
+     */
+    private static Set<String> indexGrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= value.length(); i++) {
+                grams.add(value.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class IndexedItem {
+        private final String name;
+        private final String description;
+
+        private IndexedItem(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.indexGrams(name);
+            grams.addAll(ItemSearchIndex.indexGrams(description));
+            return grams;
+        }
+    }
+
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        private int indexAfter(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private long get(int index) {
+            return ids[index];
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
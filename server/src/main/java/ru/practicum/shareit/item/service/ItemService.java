@@ -15,8 +15,12 @@ public interface ItemService {
 
     List<ItemDto> getItems(Long userId, int from, int size);
 
+    List<ItemDto> getItems(Long userId, String cursor, int size);
+
     List<ItemDto> searchItems(String text, int from, int size);
 
+    List<ItemDto> searchItems(String text, String cursor, int size);
+
     void deleteItem(Long itemId);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
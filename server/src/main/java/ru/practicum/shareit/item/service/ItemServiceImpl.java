@@ -7,6 +7,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingGetDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -21,7 +24,9 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.PageCursor;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -30,6 +35,8 @@ import javax.validation.Valid;
 import javax.validation.ValidationException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,6 +49,7 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRequestRepository itemRequestRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemSearchEngine itemSearchEngine;
 
     @Override
     @Transactional
@@ -66,6 +74,7 @@ public class ItemServiceImpl implements ItemService {
         ItemRequest request = itemDto.getRequestId() != null ? itemRequestRepository.findById(itemDto.getRequestId()).orElse(null) : null;
         Item item = ItemMapper.toModel(itemDto, owner, request);
         Item savedItem = itemRepository.save(item);
+        afterCommit(() -> itemSearchEngine.index(savedItem));
         log.debug("Вещь успешно добавлена: {}", savedItem);
         return ItemMapper.toItemDto(savedItem);
     }
@@ -94,6 +103,7 @@ public class ItemServiceImpl implements ItemService {
             existingItem.setAvailable(itemUpdateDto.getAvailable());
         }
         Item updatedItem = itemRepository.save(existingItem);
+        afterCommit(() -> itemSearchEngine.index(updatedItem));
         log.debug("Вещь с id={} успешно обновлена: {}", itemId, updatedItem);
         return ItemMapper.toItemDto(updatedItem);
     }
@@ -102,16 +112,18 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public ItemDto getItem(Long itemId, Long userId) {
         log.debug("Получение вещи с id={}", itemId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь не найдена"));
-        List<Comment> comments = commentRepository.findByItemId(itemId);
-        if (item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
-            Booking lastBooking = bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatusOrderByEndDesc(itemId, now, BookingStatus.APPROVED);
-            Booking nextBooking = bookingRepository.findFirstByItemIdAndStartGreaterThanEqualAndStatusOrderByStartAsc(itemId, now, BookingStatus.APPROVED);
-            return ItemMapper.toItemDto(item, comments, lastBooking, nextBooking);
-        } else {
-            return ItemMapper.toItemDto(item, comments, null, null);
+        List<Object[]> rows = itemRepository.findItemWithBookings(itemId, userId, LocalDateTime.now(), BookingStatus.APPROVED);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Вещь не найдена");
         }
+        Object[] row = rows.get(0);
+        Item item = (Item) row[0];
+        List<Comment> comments = commentRepository.findWithAuthorByItemId(itemId);
+        return ItemMapper.toItemDto(item, comments, toBookingGetDto(row[1], row[2]), toBookingGetDto(row[3], row[4]));
+    }
+
+    private static BookingGetDto toBookingGetDto(Object bookingId, Object bookerId) {
+        return bookingId != null ? new BookingGetDto((Long) bookingId, (Long) bookerId) : null;
     }
 
     @Override
@@ -119,27 +131,37 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getItems(Long userId, int from, int size) {
         log.debug("Получение всех вещей пользователя с id={}", userId);
         Pageable pageable = PageRequest.of(from / size, size, Sort.by("id").ascending());
-        List<Item> items = itemRepository.findByOwnerId(userId, pageable).getContent();
+        return toItemDtos(itemRepository.findByOwnerId(userId, pageable).getContent());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getItems(Long userId, String cursor, int size) {
+        log.debug("Получение вещей пользователя с id={} после курсора {}", userId, cursor);
+        long afterId = PageCursor.decode(cursor).getId();
+        return toItemDtos(itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(userId, afterId, PageRequest.of(0, size)));
+    }
+
+    private List<ItemDto> toItemDtos(List<Item> items) {
         List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
-        List<Comment> comments = commentRepository.findByItemIdIn(itemIds);
-        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, LocalDateTime.now(), BookingStatus.APPROVED);
-        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, LocalDateTime.now(), BookingStatus.APPROVED);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Comment>> comments = commentRepository.findWithAuthorByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, Booking> lastBookings = byItemId(bookingRepository.findLastBookingsByItemIds(itemIds, now, BookingStatus.APPROVED));
+        Map<Long, Booking> nextBookings = byItemId(bookingRepository.findNextBookingsByItemIds(itemIds, now, BookingStatus.APPROVED));
         return items.stream()
-                .map(item -> {
-                    List<Comment> itemComments = comments.stream()
-                            .filter(comment -> comment.getItem().getId().equals(item.getId()))
-                            .collect(Collectors.toList());
-                    Booking lastBooking = lastBookings.stream()
-                            .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                            .findFirst().orElse(null);
-                    Booking nextBooking = nextBookings.stream()
-                            .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                            .findFirst().orElse(null);
-                    return ItemMapper.toItemDto(item, itemComments, lastBooking, nextBooking);
-                })
+                .map(item -> ItemMapper.toItemDto(item,
+                        comments.getOrDefault(item.getId(), List.of()),
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId())))
                 .collect(Collectors.toList());
     }
 
+    private static Map<Long, Booking> byItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(), (first, second) -> first));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> searchItems(String text, int from, int size) {
@@ -147,8 +169,19 @@ public class ItemServiceImpl implements ItemService {
         if (text == null || text.trim().isEmpty()) {
             return List.of();
         }
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("id").ascending());
-        return itemRepository.search(text, pageable).stream()
+        return itemSearchEngine.search(text, from, size).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItems(String text, String cursor, int size) {
+        log.debug("Поиск вещей с текстом: {} после курсора {}", text, cursor);
+        if (text == null || text.trim().isEmpty()) {
+            return List.of();
+        }
+        return itemSearchEngine.searchAfter(text, PageCursor.decode(cursor).getId(), size).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -157,6 +190,7 @@ public class ItemServiceImpl implements ItemService {
     public void deleteItem(Long itemId) {
         log.debug("Удаление вещи с id={}", itemId);
         itemRepository.deleteById(itemId);
+        afterCommit(() -> itemSearchEngine.remove(itemId));
         log.debug("Вещь с id={} успешно удалена", itemId);
     }
 
@@ -180,4 +214,17 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Комментарий успешно добавлен: {}", comment);
         return CommentMapper.toCommentDto(comment);
     }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
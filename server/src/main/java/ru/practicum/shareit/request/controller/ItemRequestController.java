@@ -2,10 +2,12 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -43,10 +45,14 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
-                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                               @RequestParam(defaultValue = "20") @Min(1) int size) {
-        log.debug("Получен запрос на получение всех запросов вещей пользователя с id={}, с параметрами from={}, size={}", userId, from, size);
-        return itemRequestService.getAllRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(CONST_SHARED_USER_ID) Long userId,
+                                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                               @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                               @RequestParam(required = false) String cursor) {
+        log.debug("Получен запрос на получение всех запросов вещей пользователя с id={}, с параметрами from={}, size={}, cursor={}", userId, from, size, cursor);
+        List<ItemRequestDto> requests = cursor != null
+                ? itemRequestService.getAllRequests(userId, cursor, size)
+                : itemRequestService.getAllRequests(userId, from, size);
+        return PageCursor.withNextCursor(requests, size, request -> PageCursor.of(request.getCreated(), request.getId()));
     }
 }
@@ -6,10 +6,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id = ?1")
     List<ItemRequest> findAllByRequestorId(Long requestorId);
 
     @Query("SELECT COUNT(r) FROM ItemRequest r WHERE r.requestor.id = ?1")
@@ -17,4 +19,9 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> ?1")
     List<ItemRequest> findAllInPage(Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r WHERE r.requestor.id <> :userId " +
+            "AND (r.created < :afterCreated OR (r.created = :afterCreated AND r.id < :afterId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllAfter(Long userId, LocalDateTime afterCreated, Long afterId, Pageable pageable);
 }
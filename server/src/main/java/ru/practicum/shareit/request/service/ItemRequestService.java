@@ -12,4 +12,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getUserRequests(Long userId);
 
     List<ItemRequestDto> getAllRequests(Long userId, int from, int size);
+
+    List<ItemRequestDto> getAllRequests(Long userId, String cursor, int size);
 }
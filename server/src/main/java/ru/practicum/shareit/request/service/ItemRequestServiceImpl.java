@@ -10,7 +10,6 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -18,9 +17,11 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -55,26 +56,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         }
         ItemRequest itemRequest = itemRequestRepository.findById(id).orElseThrow(() -> new NotFoundException("Запрос не найден!"));
         log.debug("Возвращаем объект запроса вещи с id={}", id);
-        List<Item> items = itemRepository.findByRequestId(id);
-        List<ItemDto> itemDtos = items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
-        return itemRequestMapper.toItemRequestDto(itemRequest, itemDtos);
+        return toItemRequestDtos(List.of(itemRequest)).get(0);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserRequests(Long userId) {
         log.debug("Получение всех запросов пользователя с id={}", userId);
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorId(userId);
-        return itemRequests.stream()
-                .map(itemRequest -> {
-                    List<ItemDto> items = itemRepository.findByRequestId(itemRequest.getId()).stream()
-                            .map(ItemMapper::toItemDto)
-                            .collect(Collectors.toList());
-                    return itemRequestMapper.toItemRequestDto(itemRequest, items);
-                })
-                .collect(Collectors.toList());
+        return toItemRequestDtos(itemRequestRepository.findAllByRequestorId(userId));
     }
 
     @Override
@@ -87,18 +77,39 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         int amountOfRequests = itemRequestRepository.findAmountOfRequests(userId);
         int pageNum = amountOfRequests > from ? from / size : 0;
         log.debug("Параметры пагинации: pageNum={}, size={}", pageNum, size);
-        Pageable page = PageRequest.of(pageNum, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(pageNum, size, Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id")));
         List<ItemRequest> itemRequests = itemRequestRepository.findAllInPage(userId, page);
-        List<ItemRequestDto> result = itemRequests.stream()
-                .map(itemRequest -> {
-                    List<ItemDto> items = itemRepository.findByRequestId(itemRequest.getId()).stream()
-                            .map(ItemMapper::toItemDto)
-                            .collect(Collectors.toList());
-                    return itemRequestMapper.toItemRequestDto(itemRequest, items);
-                })
-                .collect(Collectors.toList());
+        List<ItemRequestDto> result = toItemRequestDtos(itemRequests);
         log.debug("Количество возвращаемых запросов: {}", result.size());
         return result;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllRequests(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            log.debug("Объект типа User с id={} отсутствует в базе данных!", userId);
+            throw new NotFoundException("Пользователь не найден!");
+        }
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        log.debug("Параметры пагинации: cursor={}, size={}", cursor, size);
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllAfter(userId, pageCursor.requireSortKey(),
+                pageCursor.getId(), PageRequest.of(0, size));
+        return toItemRequestDtos(itemRequests);
+    }
+
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDto>> items = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
+        return itemRequests.stream()
+                .map(itemRequest -> itemRequestMapper.toItemRequestDto(itemRequest,
+                        items.getOrDefault(itemRequest.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
 }
 
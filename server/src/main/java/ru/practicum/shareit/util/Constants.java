@@ -2,4 +2,5 @@ package ru.practicum.shareit.util;
 
 public class Constants {
     public static final String CONST_SHARED_USER_ID = "X-Sharer-User-Id";
+    public static final String CONST_NEXT_CURSOR = "X-Next-Cursor";
 }
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.util;
+
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import javax.validation.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.util.Constants.CONST_NEXT_CURSOR;
+
+/**
+ * Курсор keyset-пагинации: последний ключ сортировки страницы (дата и id или только id),
+ * передается клиенту в виде непрозрачной строки.
+ */
+@Getter
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime sortKey;
+    private final long id;
+
+    private PageCursor(LocalDateTime sortKey, long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public static PageCursor of(long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDateTime sortKey, long id) {
+        return new PageCursor(sortKey, id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Long.parseLong(value));
+            }
+            return of(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор страницы: " + token);
+        }
+    }
+
+    public String encode() {
+        String value = sortKey == null ? String.valueOf(id) : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime requireSortKey() {
+        if (sortKey == null) {
+            throw new ValidationException("Курсор страницы не содержит ключа сортировки");
+        }
+        return sortKey;
+    }
+
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int size, Function<T, PageCursor> cursorOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(CONST_NEXT_CURSOR, cursorOf.apply(page.get(page.size() - 1)).encode())
+                .body(page);
+    }
+}
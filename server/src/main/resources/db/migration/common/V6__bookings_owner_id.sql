@@ -0,0 +1 @@
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT;
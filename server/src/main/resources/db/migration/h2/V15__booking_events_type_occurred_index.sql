@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_booking_events_type_occurred ON booking_events (type, occurred_at);
@@ -0,0 +1,6 @@
+-- Проверка пересечений ожидающих и подтвержденных бронирований вещи, как bookings_no_overlap на PostgreSQL (V13).
+-- H2 не поддерживает UPDATE OF и WHEN в триггерах, поэтому статус проверяет сам триггер.
+CREATE TRIGGER IF NOT EXISTS bookings_no_overlap
+    BEFORE INSERT, UPDATE ON bookings
+    FOR EACH ROW
+    CALL 'ru.practicum.shareit.booking.repository.BookingNoOverlapTrigger';
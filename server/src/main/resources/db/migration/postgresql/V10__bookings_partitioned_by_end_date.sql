@@ -0,0 +1,120 @@
+-- Секционирование бронирований по дате окончания: текущие и будущие бронирования живут
+-- в нескольких последних месячных секциях, завершенные годы сливаются в годовые архивные секции.
+
+-- PostgreSQL не поддерживает ограничения исключения на секционированных таблицах,
+-- пересечения бронирований одной вещи дальше исключает только блокировка в сервисе.
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_no_overlap;
+
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+ALTER TABLE bookings_unpartitioned RENAME CONSTRAINT pk_booking TO pk_booking_unpartitioned;
+
+CREATE TABLE bookings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    owner_id BIGINT NOT NULL,
+    CONSTRAINT pk_booking PRIMARY KEY (id, end_date),
+    CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES users (id),
+    CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (id)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+-- Создает месячные секции bookings_YYYY_MM, начиная с месяца from_month.
+-- Строки этих месяцев, попавшие в секцию по умолчанию, переносятся в новую секцию.
+CREATE OR REPLACE FUNCTION create_booking_partitions(from_month DATE, months INT) RETURNS INT AS $$
+DECLARE
+    month_start DATE;
+    month_end DATE;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    FOR i IN 0..months - 1 LOOP
+        month_start := (date_trunc('month', from_month) + make_interval(months => i))::date;
+        month_end := (month_start + INTERVAL '1 month')::date;
+        partition_name := format('bookings_%s', to_char(month_start, 'YYYY_MM'));
+        CONTINUE WHEN to_regclass(partition_name) IS NOT NULL
+                OR to_regclass(format('bookings_archive_%s', to_char(month_start, 'YYYY'))) IS NOT NULL;
+        EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE end_date >= %L AND end_date < %L RETURNING *) '
+                || 'INSERT INTO %I SELECT * FROM moved', month_start, month_end, partition_name);
+        EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, month_start, month_end);
+        created := created + 1;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Сливает месячные секции годов, закончившихся не позже before, в годовые секции bookings_archive_YYYY
+-- и, если задано табличное пространство, переносит их туда.
+CREATE OR REPLACE FUNCTION archive_booking_partitions(before DATE, cold_tablespace TEXT DEFAULT NULL) RETURNS INT AS $$
+DECLARE
+    year_start DATE;
+    year_end DATE;
+    archive_name TEXT;
+    month_name TEXT;
+    archived INT := 0;
+BEGIN
+    FOR year_start IN
+        SELECT DISTINCT to_date(substring(c.relname FROM '^bookings_(\d{4})_\d{2}$'), 'YYYY')
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bookings'::regclass AND c.relname ~ '^bookings_\d{4}_\d{2}$'
+        ORDER BY 1
+    LOOP
+        year_end := (year_start + INTERVAL '1 year')::date;
+        CONTINUE WHEN year_end > before;
+        archive_name := format('bookings_archive_%s', to_char(year_start, 'YYYY'));
+        EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', archive_name);
+        FOR month_name IN
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'bookings'::regclass AND c.relname ~ format('^bookings_%s_\d{2}$', to_char(year_start, 'YYYY'))
+        LOOP
+            EXECUTE format('ALTER TABLE bookings DETACH PARTITION %I', month_name);
+            EXECUTE format('INSERT INTO %I SELECT * FROM %I', archive_name, month_name);
+            EXECUTE format('DROP TABLE %I', month_name);
+        END LOOP;
+        EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE end_date >= %L AND end_date < %L RETURNING *) '
+                || 'INSERT INTO %I SELECT * FROM moved', year_start, year_end, archive_name);
+        IF cold_tablespace IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I SET TABLESPACE %I', archive_name, cold_tablespace);
+        END IF;
+        EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                archive_name, year_start, year_end);
+        archived := archived + 1;
+    END LOOP;
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Месячные секции от самого раннего окончания бронирования до трех месяцев вперед.
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', LEAST(COALESCE((SELECT MIN(end_date) FROM bookings_unpartitioned), now()), now()))::date;
+    current_month DATE := date_trunc('month', now())::date;
+BEGIN
+    PERFORM create_booking_partitions(first_month,
+            ((EXTRACT(YEAR FROM current_month) - EXTRACT(YEAR FROM first_month)) * 12
+                    + EXTRACT(MONTH FROM current_month) - EXTRACT(MONTH FROM first_month))::INT + 4);
+END;
+$$;
+
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, owner_id)
+SELECT id, start_date, end_date, item_id, booker_id, status, owner_id
+FROM bookings_unpartitioned;
+
+SELECT setval(pg_get_serial_sequence('bookings', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM bookings;
+
+DROP TABLE bookings_unpartitioned;
+
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX idx_bookings_item_booker ON bookings (item_id, booker_id, status, end_date);
+CREATE INDEX idx_bookings_owner_start ON bookings (owner_id, start_date, id);
@@ -0,0 +1,27 @@
+-- Возвращает на уровне базы гарантию, которую давало ограничение bookings_no_overlap до секционирования (V10).
+-- Ограничения исключения на секционированной таблице невозможны, поэтому триггер под транзакционной
+-- рекомендательной блокировкой вещи проверяет пересечения с ожидающими и подтвержденными бронированиями.
+-- Блокировка держится до конца транзакции, так что конкурентная вставка дождется коммита и увидит строку.
+CREATE OR REPLACE FUNCTION check_booking_no_overlap() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('bookings_no_overlap'), hashtext(NEW.item_id::text));
+    IF EXISTS (SELECT 1
+               FROM bookings b
+               WHERE b.item_id = NEW.item_id
+                 AND b.id <> NEW.id
+                 AND b.status IN ('WAITING', 'APPROVED')
+                 AND b.start_date < NEW.end_date
+                 AND b.end_date > NEW.start_date) THEN
+        RAISE EXCEPTION 'Бронирование % пересекается с другим бронированием вещи %', NEW.id, NEW.item_id
+            USING ERRCODE = 'exclusion_violation', CONSTRAINT = 'bookings_no_overlap';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Триггер секционированной таблицы наследуют и все секции, созданные позже.
+CREATE TRIGGER bookings_no_overlap
+    BEFORE INSERT OR UPDATE OF item_id, start_date, end_date, status ON bookings
+    FOR EACH ROW
+    WHEN (NEW.status IN ('WAITING', 'APPROVED'))
+    EXECUTE FUNCTION check_booking_no_overlap();
@@ -0,0 +1,8 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_requests_created ON requests (created, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_booker ON bookings (item_id, booker_id, status, end_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_item ON comments (item_id);
@@ -0,0 +1 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
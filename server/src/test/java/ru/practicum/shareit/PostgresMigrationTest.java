@@ -0,0 +1,213 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Прогоняет все миграции на настоящем PostgreSQL в отдельной схеме и проверяет, что база сама не дает
+ * пересечься ожидающим и подтвержденным бронированиям одной вещи после секционирования, а полнотекстовый
+ * поиск по items.search_vector находит то же, что и поиск через LIKE, которым пользуется профиль ci,test на H2.
+ * <p>
+ * Обычная сборка работает на H2, поэтому тест запускается вручную на базе из docker-compose:
+ * <pre>
+ * docker compose up -d db
+ * SHAREIT_POSTGRES_URL=jdbc:postgresql://localhost:5433/shareit mvn -pl server test -Dtest=PostgresMigrationTest
+ * </pre>
+ * Пользователь и пароль берутся из SHAREIT_POSTGRES_USER и SHAREIT_POSTGRES_PASSWORD, по умолчанию как в docker-compose.
+ */
+@EnabledIfEnvironmentVariable(named = "SHAREIT_POSTGRES_URL", matches = ".+")
+class PostgresMigrationTest {
+
+    private static final String SCHEMA = "shareit_migration_check";
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private final String url = System.getenv("SHAREIT_POSTGRES_URL");
+    private final String user = System.getenv().getOrDefault("SHAREIT_POSTGRES_USER", "dbuser");
+    private final String password = System.getenv().getOrDefault("SHAREIT_POSTGRES_PASSWORD", "qwerty");
+
+    private Flyway flyway;
+    private Connection connection;
+
+    @BeforeEach
+    void migrate() throws SQLException {
+        flyway = Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+        connection = DriverManager.getConnection(url, user, password);
+        connection.setSchema(SCHEMA);
+    }
+
+    @AfterEach
+    void clean() throws SQLException {
+        connection.close();
+        flyway.clean();
+    }
+
+    @Test
+    void testAllMigrationsApply() throws SQLException {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(flyway.info().applied().length, flyway.info().all().length);
+        for (String index : new String[]{"idx_bookings_status_start", "idx_bookings_status_end"}) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                         "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass('" + index + "')")) {
+                assertTrue(resultSet.next() && resultSet.getBoolean(1), index);
+            }
+        }
+    }
+
+    @Test
+    void testOverlappingActiveBookingsAreRejected() throws SQLException {
+        long ownerId = insertUser("owner@example.com");
+        long bookerId = insertUser("booker@example.com");
+        long itemId = insertItem(ownerId);
+        insertBooking(itemId, bookerId, ownerId, START, START.plusDays(2), "APPROVED");
+
+        SQLException overlap = assertThrows(SQLException.class,
+                () -> insertBooking(itemId, bookerId, ownerId, START.plusDays(1), START.plusDays(3), "WAITING"));
+        assertEquals("23P01", overlap.getSQLState());
+
+        long rejectedId = insertBooking(itemId, bookerId, ownerId, START.plusDays(1), START.plusDays(3), "REJECTED");
+        SQLException reapproval = assertThrows(SQLException.class, () -> execute(
+                "UPDATE bookings SET status = 'APPROVED' WHERE id = " + rejectedId));
+        assertEquals("23P01", reapproval.getSQLState());
+
+        insertBooking(itemId, bookerId, ownerId, START.plusDays(2), START.plusDays(4), "WAITING");
+        insertBooking(itemId, bookerId, ownerId, START.plusYears(20), START.plusYears(20).plusDays(1), "APPROVED");
+        assertThrows(SQLException.class,
+                () -> insertBooking(itemId, bookerId, ownerId, START.plusYears(20), START.plusYears(20).plusDays(1), "WAITING"));
+    }
+
+    @Test
+    void testFullTextSearchAgreesWithLikeFallback() throws Exception {
+        long ownerId = insertUser("owner@example.com");
+        long drillId = insertItem(ownerId, "Дрель аккумуляторная", "Два аккумулятора в комплекте", true);
+        long described = insertItem(ownerId, "Набор инструментов", "Мощная дрель и биты", true);
+        insertItem(ownerId, "Дрель ударная", "Сдана в ремонт", false);
+        insertItem(ownerId, "Лобзик", "Пилки по дереву", true);
+
+        assertEquals(List.of(drillId, described), fullTextSearch("дрель", 0L, 10));
+        assertEquals(List.of(drillId, described), likeSearch("дрель", 0L, 10));
+        // словоформы находит только полнотекстовый поиск, LIKE ищет подстроку
+        assertEquals(List.of(drillId, described), fullTextSearch("дрели", 0L, 10));
+        assertEquals(List.of(), likeSearch("дрели", 0L, 10));
+
+        assertEquals(List.of(described), fullTextSearch("дрель", drillId, 10));
+        assertEquals(List.of(drillId), fullTextSearch("дрель", 0L, 1));
+        assertEquals(List.of(), fullTextSearch("перфоратор", 0L, 10));
+    }
+
+    private List<Long> fullTextSearch(String text, long afterId, int size) throws Exception {
+        // тот же запрос, что выполняет FullTextItemSearchEngine, с постраничным LIMIT, который добавляет Spring Data
+        String query = ItemRepository.class.getMethod("fullTextSearch", String.class, Long.class, Pageable.class)
+                .getAnnotation(Query.class).value()
+                .replace(":text", "?")
+                .replace(":afterId", "?");
+        return searchIds(query + " LIMIT ?", text, afterId, size);
+    }
+
+    private List<Long> likeSearch(String text, long afterId, int size) throws SQLException {
+        // SQL, в который Hibernate переводит ItemRepository.searchAfter
+        return searchIds("SELECT i.* FROM items i "
+                + "WHERE (upper(i.name) LIKE upper('%' || ? || '%') OR upper(i.description) LIKE upper('%' || ? || '%')) "
+                + "AND i.is_available = true AND i.id > ? ORDER BY i.id LIMIT ?", text, text, afterId, size);
+    }
+
+    private List<Long> searchIds(String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            List<Long> ids = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong("id"));
+                }
+            }
+            return ids;
+        }
+    }
+
+    private long insertUser(String email) throws SQLException {
+        return insert("INSERT INTO users (name, email) VALUES ('Пользователь', '" + email + "')");
+    }
+
+    private long insertItem(long ownerId) throws SQLException {
+        return insertItem(ownerId, "Вещь", "Описание", true);
+    }
+
+    private long insertItem(long ownerId, String name, String description, boolean available) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                new String[]{"id"})) {
+            statement.setString(1, name);
+            statement.setString(2, description);
+            statement.setBoolean(3, available);
+            statement.setLong(4, ownerId);
+            statement.executeUpdate();
+            return generatedId(statement);
+        }
+    }
+
+    private long insertBooking(long itemId, long bookerId, long ownerId, LocalDateTime start, LocalDateTime end,
+                               String status) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status) VALUES (?, ?, ?, ?, ?, ?)",
+                new String[]{"id"})) {
+            statement.setTimestamp(1, Timestamp.valueOf(start));
+            statement.setTimestamp(2, Timestamp.valueOf(end));
+            statement.setLong(3, itemId);
+            statement.setLong(4, bookerId);
+            statement.setLong(5, ownerId);
+            statement.setString(6, status);
+            statement.executeUpdate();
+            return generatedId(statement);
+        }
+    }
+
+    private long insert(String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+            statement.executeUpdate();
+            return generatedId(statement);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    private static long generatedId(Statement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.util.SqlStatementCounter;
+
+/**
+ * Те же проверки планов, что и в {@link QueryPlanTest}, но на настоящем PostgreSQL с секционированной таблицей
+ * бронирований. Последовательное сканирование запрещено на уровне соединения, поэтому Seq Scan в плане
+ * означает, что для запроса нет подходящего индекса, а не то, что таблица пока маленькая.
+ * <p>
+ * Запускается вручную на базе из docker-compose, миграции применяются в отдельной схеме:
+ * <pre>
+ * docker compose up -d db
+ * SHAREIT_POSTGRES_URL=jdbc:postgresql://localhost:5433/shareit mvn -pl server test -Dtest=PostgresQueryPlanTest
+ * </pre>
+ */
+@EnabledIfEnvironmentVariable(named = "SHAREIT_POSTGRES_URL", matches = ".+")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementCounter.RECORDER,
+        "spring.datasource.driverClassName=org.postgresql.Driver",
+        "spring.datasource.url=${SHAREIT_POSTGRES_URL}",
+        "spring.datasource.username=${SHAREIT_POSTGRES_USER:dbuser}",
+        "spring.datasource.password=${SHAREIT_POSTGRES_PASSWORD:qwerty}",
+        "spring.datasource.hikari.schema=" + PostgresQueryPlanTest.SCHEMA,
+        "spring.datasource.hikari.connection-init-sql=SET enable_seqscan = off",
+        "spring.flyway.schemas=" + PostgresQueryPlanTest.SCHEMA
+})
+class PostgresQueryPlanTest extends QueryPlanTest {
+
+    static final String SCHEMA = "shareit_plan_check";
+}
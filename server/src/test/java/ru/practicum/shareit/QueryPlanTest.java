@@ -0,0 +1,208 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementCounter.RECORDER)
+class QueryPlanTest {
+
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final List<String> FULL_SCAN_MARKERS = List.of(".tableScan", "Seq Scan");
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(em.persist(new User(null, "Пользователь " + i, "user" + i + "@example.com")));
+        }
+        owner = users.get(0);
+        booker = users.get(1);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 200; i++) {
+            User requestor = users.get(i % users.size());
+            ItemRequest request = em.persist(new ItemRequest(null, "Запрос " + i, requestor, now.minusHours(i), new ArrayList<>()));
+            Item seeded = em.persist(new Item(null, "Вещь " + i, "Описание " + i, true, users.get((i + 1) % users.size()), request));
+            User seededBooker = users.get((i + 2) % users.size());
+            for (int j = 0; j < 5; j++) {
+                LocalDateTime start = now.plusDays(j * 2L - 4);
+                BookingStatus status = BookingStatus.values()[j % BookingStatus.values().length];
+                em.persist(new Booking(null, start, start.plusDays(1), seeded, seededBooker, status));
+            }
+            em.persist(new Comment(null, "Комментарий " + i, seeded, seededBooker, now));
+            if (i == 0) {
+                item = seeded;
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void testRepositoryQueriesUseIndexes() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 10);
+        List<Long> itemIds = List.of(item.getId());
+        Long userId = booker.getId();
+        Long ownerId = owner.getId();
+        Map<String, Runnable> accessPaths = new LinkedHashMap<>();
+        for (BookingRole role : BookingRole.values()) {
+            Long roleUserId = role == BookingRole.OWNER ? ownerId : userId;
+            for (BookingState state : BookingState.values()) {
+                accessPaths.put("findBookings " + role + " " + state,
+                        () -> bookingRepository.findBookings(role, roleUserId, state, now, FIRST_PAGE_START, Long.MAX_VALUE, page));
+            }
+        }
+        accessPaths.put("findLastBookingsByItemIds", () -> bookingRepository.findLastBookingsByItemIds(itemIds, now, BookingStatus.APPROVED));
+        accessPaths.put("findNextBookingsByItemIds", () -> bookingRepository.findNextBookingsByItemIds(itemIds, now, BookingStatus.APPROVED));
+        accessPaths.put("findStartingBetween", () -> bookingRepository.findStartingBetween(BookingStatus.APPROVED, now, Long.MAX_VALUE, now.plusHours(1), page));
+        accessPaths.put("findEndingBetween", () -> bookingRepository.findEndingBetween(BookingStatus.APPROVED, now, Long.MAX_VALUE, now.plusHours(1), page));
+        accessPaths.put("existsByItemIdAndBookerIdAndStatusAndEndBefore", () -> bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(item.getId(), userId, BookingStatus.APPROVED, now));
+        accessPaths.put("findByOwnerId", () -> itemRepository.findByOwnerId(ownerId, PageRequest.of(0, 10, Sort.by("id"))).getContent());
+        accessPaths.put("findByOwnerIdAndIdGreaterThanOrderByIdAsc", () -> itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, 0L, page));
+        accessPaths.put("findByRequestIdIn", () -> itemRepository.findByRequestIdIn(List.of(item.getRequest().getId())));
+        accessPaths.put("findItemWithBookings", () -> itemRepository.findItemWithBookings(item.getId(), ownerId, now, BookingStatus.APPROVED));
+        accessPaths.put("findWithAuthorByItemId", () -> commentRepository.findWithAuthorByItemId(item.getId()));
+        accessPaths.put("findWithAuthorByItemIdIn", () -> commentRepository.findWithAuthorByItemIdIn(itemIds));
+        accessPaths.put("findAllByRequestorId", () -> itemRequestRepository.findAllByRequestorId(userId));
+        accessPaths.put("findAmountOfRequests", () -> itemRequestRepository.findAmountOfRequests(userId));
+
+        SqlStatementCounter counter = new SqlStatementCounter(entityManagerFactory);
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Runnable> accessPath : accessPaths.entrySet()) {
+            counter.reset();
+            accessPath.getValue().run();
+            List<String> statements = counter.statements();
+            assertFalse(statements.isEmpty(), accessPath.getKey());
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (FULL_SCAN_MARKERS.stream().anyMatch(plan::contains)) {
+                    failures.add(accessPath.getKey() + ":\n" + plan);
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            fail("Запросы без индекса:\n" + String.join("\n\n", failures));
+        }
+    }
+
+    @Test
+    void testBookingListsReuseOneStatementPerRoleAndState() {
+        SqlStatementCounter counter = new SqlStatementCounter(entityManagerFactory);
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> statements = new HashSet<>();
+        long misses = 0;
+        for (int round = 0; round < 3; round++) {
+            counter.reset();
+            for (BookingRole role : BookingRole.values()) {
+                for (BookingState state : BookingState.values()) {
+                    bookingRepository.findBookings(role, round == 0 ? owner.getId() : booker.getId(), state, now.plusMinutes(round),
+                            now.plusDays(round), (long) round, PageRequest.of(0, 10 + round));
+                }
+            }
+            statements.addAll(counter.statements());
+            misses = counter.queryPlanCacheMisses();
+        }
+        int combinations = BookingRole.values().length * BookingState.values().length;
+        // WAITING и REJECTED отличаются только значением параметра статуса и дают один SQL
+        assertEquals(combinations - BookingRole.values().length, statements.size());
+        assertEquals(0, misses);
+        assertEquals(combinations, counter.queryPlanCacheHits());
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setObject(i, sampleValue(parameters.getParameterType(i)));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private Object sampleValue(int sqlType) {
+        switch (sqlType) {
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return Timestamp.valueOf(LocalDateTime.now());
+            case Types.VARCHAR:
+            case Types.CHAR:
+                return BookingStatus.APPROVED.name();
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return true;
+            default:
+                return item.getId();
+        }
+    }
+}
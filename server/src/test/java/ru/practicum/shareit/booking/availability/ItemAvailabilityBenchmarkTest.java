@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Время ответа индекса занятости для вещи с тысячами бронирований: 99-й процентиль проверки периода
+ * и поиска ближайшего свободного начала должен укладываться в миллисекунду. Поиск свободного начала
+ * проверяется и в худшем случае, когда период длиннее любого промежутка между бронированиями
+ * и индекс проходит все бронирования после start.
+ */
+@Tag("perf")
+@Slf4j
+class ItemAvailabilityBenchmarkTest {
+
+    private static final int QUERIES = 20_000;
+    private static final long MAX_P99_NANOS = 1_000_000;
+    // бронирование на два часа, затем час свободен
+    private static final int BOOKING_HOURS = 2;
+    private static final int SLOT_HOURS = 3;
+
+    private final User owner = new User(1L, "Владелец", "owner@example.com");
+    private final User booker = new User(2L, "Арендатор", "booker@example.com");
+    private final Item item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @ParameterizedTest
+    @ValueSource(ints = {1000, 5000, 10_000})
+    void testAnswersTakeLessThanMillisecond(int bookings) {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(mock(BookingRepository.class));
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = base.plusHours((long) i * SLOT_HOURS);
+            index.add(new Booking((long) i + 1, start, start.plusHours(BOOKING_HOURS), item, booker,
+                    i % 2 == 0 ? BookingStatus.APPROVED : BookingStatus.WAITING));
+        }
+        assertEquals(bookings, index.size(item.getId()));
+        int horizonHours = bookings * SLOT_HOURS;
+        Random random = new Random(bookings);
+
+        long isFree = p99(hour -> index.isFree(item.getId(), base.plusHours(hour), base.plusHours(hour + 1)),
+                random, horizonHours);
+        long nextFree = p99(hour -> index.findNextFreeStart(item.getId(), base.plusHours(hour), base.plusHours(hour + 1)),
+                random, horizonHours);
+        long nextFreeWorst = p99(hour -> index.findNextFreeStart(item.getId(), base, base.plusHours(SLOT_HOURS)),
+                random, horizonHours);
+
+        log.info("Бронирований у вещи: {}, p99: isFree {} нс, findNextFreeStart {} нс, без подходящего промежутка {} нс",
+                bookings, isFree, nextFree, nextFreeWorst);
+
+        assertEquals(base.plusHours(horizonHours - 1), index.findNextFreeStart(item.getId(), base, base.plusHours(SLOT_HOURS)));
+        assertTrue(isFree < MAX_P99_NANOS, "бронирований: " + bookings + ", isFree p99: " + isFree / 1000 + " мкс");
+        assertTrue(nextFree < MAX_P99_NANOS, "бронирований: " + bookings + ", findNextFreeStart p99: " + nextFree / 1000 + " мкс");
+        assertTrue(nextFreeWorst < MAX_P99_NANOS,
+                "бронирований: " + bookings + ", findNextFreeStart без подходящего промежутка p99: " + nextFreeWorst / 1000 + " мкс");
+    }
+
+    /**
+     * 99-й процентиль времени запроса со случайным часом начала после такого же числа запросов на прогрев.
+     */
+    private static long p99(IntConsumer query, Random random, int horizonHours) {
+        for (int i = 0; i < QUERIES; i++) {
+            query.accept(random.nextInt(horizonHours));
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int hour = random.nextInt(horizonHours);
+            long startedAt = System.nanoTime();
+            query.accept(hour);
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return nanos[QUERIES * 99 / 100];
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityIndex index;
+    private Item item;
+    private User booker;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemAvailabilityIndex(bookingRepository);
+        User owner = new User(1L, "Владелец", "owner@example.com");
+        booker = new User(2L, "Арендатор", "booker@example.com");
+        item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void testIsFreeTreatsPeriodsAsHalfOpen() {
+        index.add(booking(1L, 10, 20, BookingStatus.APPROVED));
+        index.add(booking(2L, 30, 40, BookingStatus.WAITING));
+        assertTrue(index.isFree(item.getId(), hours(0), hours(10)));
+        assertTrue(index.isFree(item.getId(), hours(20), hours(30)));
+        assertTrue(index.isFree(item.getId(), hours(40), hours(50)));
+        assertFalse(index.isFree(item.getId(), hours(19), hours(21)));
+        assertFalse(index.isFree(item.getId(), hours(12), hours(15)));
+        assertFalse(index.isFree(item.getId(), hours(0), hours(50)));
+        assertTrue(index.isFree(2L, hours(12), hours(15)));
+    }
+
+    @Test
+    void testFindNextFreeStartSkipsBookedPeriods() {
+        index.add(booking(1L, 10, 20, BookingStatus.APPROVED));
+        index.add(booking(2L, 25, 40, BookingStatus.WAITING));
+        index.add(booking(3L, 45, 50, BookingStatus.APPROVED));
+        assertEquals(hours(0), index.findNextFreeStart(item.getId(), hours(0), hours(10)));
+        assertEquals(hours(20), index.findNextFreeStart(item.getId(), hours(15), hours(20)));
+        assertEquals(hours(40), index.findNextFreeStart(item.getId(), hours(26), hours(31)));
+        assertEquals(hours(50), index.findNextFreeStart(item.getId(), hours(12), hours(18)));
+    }
+
+    @Test
+    void testRejectedBookingFreesPeriod() {
+        Booking booking = booking(1L, 10, 20, BookingStatus.WAITING);
+        index.add(booking);
+        assertFalse(index.isFree(item.getId(), hours(12), hours(15)));
+        booking.setStatus(BookingStatus.REJECTED);
+        index.add(booking);
+        assertTrue(index.isFree(item.getId(), hours(12), hours(15)));
+        assertEquals(0, index.size(item.getId()));
+    }
+
+    @Test
+    void testFinishedBookingsAreEvicted() {
+        index.add(new Booking(1L, base.minusDays(3), base.minusDays(2), item, booker, BookingStatus.APPROVED));
+        index.add(booking(2L, 10, 20, BookingStatus.APPROVED));
+        assertEquals(1, index.size(item.getId()));
+    }
+
+    @Test
+    void testWarmUpLoadsActiveBookingsInBatches() {
+        List<Booking> firstBatch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            firstBatch.add(booking(i + 1L, 2 * i, 2 * i + 1, BookingStatus.APPROVED));
+        }
+        List<Booking> secondBatch = List.of(booking(1001L, 3000, 3001, BookingStatus.WAITING));
+        when(bookingRepository.findByIdGreaterThanAndStatusInAndEndAfterOrderByIdAsc(anyLong(), ArgumentMatchers.<BookingStatus>anyCollection(), any(), any()))
+                .thenReturn(firstBatch)
+                .thenReturn(secondBatch);
+        index.warmUp();
+        assertEquals(1001, index.size(item.getId()));
+        assertFalse(index.isFree(item.getId(), hours(3000), hours(3001)));
+        assertTrue(index.isFree(item.getId(), hours(1), hours(2)));
+    }
+
+    @Test
+    void testWarmUpDoesNotRestoreBookingChangedMeanwhile() {
+        Booking waiting = booking(1L, 10, 20, BookingStatus.WAITING);
+        when(bookingRepository.findByIdGreaterThanAndStatusInAndEndAfterOrderByIdAsc(anyLong(), ArgumentMatchers.<BookingStatus>anyCollection(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // бронирование отклонено и удалено из индекса после того, как построение индекса его прочитало
+                    Booking rejected = booking(1L, 10, 20, BookingStatus.REJECTED);
+                    index.add(rejected);
+                    return List.of(waiting);
+                });
+        index.warmUp();
+        assertTrue(index.isFree(item.getId(), hours(12), hours(15)));
+        assertEquals(hours(10), index.findNextFreeStart(item.getId(), hours(10), hours(20)));
+
+        index.add(booking(2L, 30, 40, BookingStatus.WAITING));
+        assertFalse(index.isFree(item.getId(), hours(32), hours(35)));
+    }
+
+    @Test
+    void testAnswersMatchLinearScanForThousandsOfBookings() {
+        Random random = new Random(42);
+        List<Booking> bookings = new ArrayList<>();
+        int hour = 0;
+        for (long id = 1; id <= 5000; id++) {
+            hour += random.nextInt(5);
+            int length = 1 + random.nextInt(6);
+            Booking booking = booking(id, hour, hour + length, BookingStatus.APPROVED);
+            bookings.add(booking);
+            index.add(booking);
+            hour += length;
+        }
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(hour + 10);
+            LocalDateTime start = hours(from);
+            LocalDateTime end = hours(from + 1 + random.nextInt(8));
+            assertEquals(isFreeByScan(bookings, start, end), index.isFree(item.getId(), start, end));
+            LocalDateTime nextFreeStart = index.findNextFreeStart(item.getId(), start, end);
+            assertTrue(isFreeByScan(bookings, nextFreeStart, nextFreeStart.plus(Duration.between(start, end))));
+        }
+    }
+
+    private static boolean isFreeByScan(List<Booking> bookings, LocalDateTime start, LocalDateTime end) {
+        return bookings.stream().noneMatch(b -> b.getStart().isBefore(end) && b.getEnd().isAfter(start));
+    }
+
+    private Booking booking(Long id, int startHour, int endHour, BookingStatus status) {
+        return new Booking(id, hours(startHour), hours(endHour), item, booker, status);
+    }
+
+    private LocalDateTime hours(int hours) {
+        return base.plusHours(hours);
+    }
+}
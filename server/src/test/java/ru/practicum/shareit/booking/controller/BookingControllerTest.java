@@ -8,9 +8,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.util.Constants;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -56,6 +61,34 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.end").exists());
     }
 
+    @Test
+    void updateBookings() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false));
+        when(bookingService.updateBookingStatuses(1L, decisions)).thenReturn(List.of(
+                BookingDecisionResultDto.updated(1L, BookingStatus.APPROVED),
+                BookingDecisionResultDto.failed(2L, "Бронирование не найдено")));
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(Constants.CONST_SHARED_USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(1L))
+                .andExpect(jsonPath("$[0].updated").value(true))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].bookingId").value(2L))
+                .andExpect(jsonPath("$[1].updated").value(false))
+                .andExpect(jsonPath("$[1].error").value("Бронирование не найдено"));
+    }
+
+    @Test
+    void updateBookingsRejectsEmptyList() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(Constants.CONST_SHARED_USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateBooking() throws Exception {
         when(bookingService.updateBookingStatus(eq(1L), eq(1L), anyBoolean())).thenReturn(bookingDto);
@@ -113,4 +146,35 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].start").exists())
                 .andExpect(jsonPath("$[0].end").exists());
     }
+
+    @Test
+    void getUserBookingsWithCursor() throws Exception {
+        String cursor = PageCursor.of(bookingDto.getStart().plusDays(1), 2L).encode();
+        when(bookingService.getUserBookings(eq(1L), eq("ALL"), eq(cursor), eq(1))).thenReturn(List.of(bookingDto));
+        mockMvc.perform(get("/bookings")
+                        .header(Constants.CONST_SHARED_USER_ID, 1L)
+                        .param("cursor", cursor)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Constants.CONST_NEXT_CURSOR,
+                        PageCursor.of(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(jsonPath("$[0].id").value(bookingDto.getId()));
+    }
+
+    @Test
+    void getItemAvailability() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        when(bookingService.getItemAvailability(1L, start, end))
+                .thenReturn(new ItemAvailabilityDto(1L, start, end, false, end.plusHours(2)));
+        mockMvc.perform(get("/bookings/availability")
+                        .header(Constants.CONST_SHARED_USER_ID, 1L)
+                        .param("itemId", "1")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1L))
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.nextFreeStart").value("2030-01-02T12:00:00"));
+    }
 }
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLifecycleSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingEventRepository bookingEventRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MutableClock clock;
+    private BookingLifecycleScheduler scheduler;
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+        scheduler = new BookingLifecycleScheduler(bookingRepository, bookingEventRepository, eventPublisher, clock, true,
+                1000, 64, 100, Duration.ofHours(1), 2);
+        User owner = new User(1L, "Владелец", "owner@example.com");
+        booker = new User(2L, "Арендатор", "booker@example.com");
+        item = new Item(1L, "Вещь", "Описание", true, owner, null);
+    }
+
+    @Test
+    void testRestoreLoadsWindowInBatchesAndFiresDueEvents() {
+        Booking first = booking(1L, NOW.plusMinutes(10), NOW.plusMinutes(20));
+        Booking second = booking(2L, NOW.plusMinutes(10), NOW.plusHours(3));
+        Booking third = booking(3L, NOW.plusMinutes(30), NOW.plusHours(4));
+        when(bookingRepository.findStartingBetween(eq(BookingStatus.APPROVED), eq(NOW), eq(Long.MAX_VALUE), eq(NOW.plusHours(1)), any()))
+                .thenReturn(List.of(first, second));
+        when(bookingRepository.findStartingBetween(eq(BookingStatus.APPROVED), eq(second.getStart()), eq(second.getId()), eq(NOW.plusHours(1)), any()))
+                .thenReturn(List.of(third));
+        when(bookingRepository.findEndingBetween(eq(BookingStatus.APPROVED), eq(NOW), eq(Long.MAX_VALUE), eq(NOW.plusHours(1)), any()))
+                .thenReturn(List.of(first));
+        scheduler.restore();
+        assertEquals(4, scheduler.pendingTimers());
+
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+        when(bookingEventRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+        clock.advance(Duration.ofMinutes(10));
+        scheduler.tick();
+        verify(bookingEventRepository).saveAll(List.of(
+                new BookingEvent(null, first.getId(), item.getId(), BookingEventType.STARTED, first.getStart()),
+                new BookingEvent(null, second.getId(), item.getId(), BookingEventType.STARTED, second.getStart())));
+        verify(eventPublisher).publishEvent(new BookingEvent(null, first.getId(), item.getId(), BookingEventType.STARTED, first.getStart()));
+        assertEquals(2, scheduler.pendingTimers());
+    }
+
+    @Test
+    void testRestoreFiresEventsMissedWhileStoppedOnce() {
+        LocalDateTime lastStarted = NOW.minusHours(2);
+        Booking alreadyFired = booking(1L, lastStarted, NOW.plusHours(5));
+        Booking missed = booking(2L, NOW.minusHours(1), NOW.plusHours(5));
+        when(bookingEventRepository.findLastOccurredAt(BookingEventType.STARTED)).thenReturn(lastStarted);
+        when(bookingRepository.findStartingBetween(eq(BookingStatus.APPROVED), eq(lastStarted), eq(Long.MIN_VALUE), eq(NOW.plusHours(1)), any()))
+                .thenReturn(List.of(alreadyFired, missed));
+        scheduler.restore();
+        assertEquals(2, scheduler.pendingTimers());
+
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(alreadyFired, missed));
+        when(bookingEventRepository.findByBookingIdIn(anyCollection())).thenReturn(List.of(
+                new BookingEvent(10L, alreadyFired.getId(), item.getId(), BookingEventType.STARTED, lastStarted)));
+        when(bookingEventRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+        clock.advance(Duration.ofSeconds(1));
+        scheduler.tick();
+        verify(bookingEventRepository).saveAll(List.of(
+                new BookingEvent(null, missed.getId(), item.getId(), BookingEventType.STARTED, missed.getStart())));
+        assertEquals(0, scheduler.pendingTimers());
+    }
+
+    @Test
+    void testTickSkipsBookingsChangedAfterScheduling() {
+        Booking booking = booking(1L, NOW.plusMinutes(10), NOW.plusHours(2));
+        when(bookingRepository.findStartingBetween(any(), any(), anyLong(), any(), any())).thenReturn(List.of(booking));
+        scheduler.restore();
+        Booking rescheduled = booking(1L, NOW.plusMinutes(40), NOW.plusHours(2));
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(rescheduled));
+        clock.advance(Duration.ofMinutes(10));
+        scheduler.tick();
+        verify(bookingEventRepository).saveAll(List.of());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testScheduleAddsApprovedBookingInsideLoadedWindowOnly() {
+        scheduler.restore();
+        scheduler.schedule(booking(1L, NOW.plusMinutes(5), NOW.plusMinutes(50)));
+        scheduler.schedule(booking(2L, NOW.plusMinutes(5), NOW.plusHours(5)));
+        scheduler.schedule(new Booking(3L, NOW.plusMinutes(5), NOW.plusMinutes(50), item, booker, BookingStatus.REJECTED));
+        assertEquals(3, scheduler.pendingTimers());
+    }
+
+    @Test
+    void testScheduleIsNotBlockedByRefillQueries() {
+        Booking approvedDuringLoad = booking(3L, NOW.plusMinutes(20), NOW.plusHours(5));
+        Booking loaded = booking(1L, NOW.plusMinutes(10), NOW.plusHours(5));
+        when(bookingRepository.findStartingBetween(eq(BookingStatus.APPROVED), eq(NOW), eq(Long.MAX_VALUE), eq(NOW.plusHours(1)), any()))
+                .thenAnswer(invocation -> {
+                    // подтверждение приходит из другого потока, пока подгрузка ждет ответа базы
+                    CompletableFuture.runAsync(() -> scheduler.schedule(approvedDuringLoad)).get(5, TimeUnit.SECONDS);
+                    return List.of(loaded);
+                });
+        scheduler.restore();
+        assertEquals(2, scheduler.pendingTimers());
+
+        scheduler.schedule(booking(4L, NOW.plusMinutes(30), NOW.plusHours(5)));
+        assertEquals(3, scheduler.pendingTimers());
+    }
+
+    @Test
+    void testDisabledSchedulerDoesNothing() {
+        BookingLifecycleScheduler disabled = new BookingLifecycleScheduler(bookingRepository, bookingEventRepository, eventPublisher,
+                clock, false, 1000, 64, 100, Duration.ofHours(1), 2);
+        disabled.restore();
+        disabled.schedule(booking(1L, NOW.plusMinutes(5), NOW.plusMinutes(50)));
+        disabled.tick();
+        assertEquals(0, disabled.pendingTimers());
+        verifyNoInteractions(bookingRepository, bookingEventRepository, eventPublisher);
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return new Booking(id, start, end, item, booker, BookingStatus.APPROVED);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
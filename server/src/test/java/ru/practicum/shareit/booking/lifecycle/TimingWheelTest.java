@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void testTimersFireOnTheirTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 10, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 420);
+        assertEquals(List.of(), wheel.advance(199));
+        assertEquals(List.of("a"), wheel.advance(200));
+        assertEquals(List.of(), wheel.advance(399));
+        assertEquals(List.of("b"), wheel.advance(400));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testTimersBeyondOneRotationWaitForTheirRound() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 10, 0);
+        wheel.schedule("near", 20);
+        wheel.schedule("far", 20 + 4 * 10 * 3);
+        assertEquals(List.of("near"), wheel.advance(20));
+        assertEquals(List.of(), wheel.advance(20 + 4 * 10 * 3 - 1));
+        assertEquals(List.of("far"), wheel.advance(20 + 4 * 10 * 3));
+    }
+
+    @Test
+    void testOverdueTimersFireOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 10, 1000);
+        wheel.advance(1500);
+        wheel.schedule("overdue", 900);
+        wheel.schedule("late", 1200);
+        assertEquals(List.of("overdue", "late"), wheel.advance(1510));
+    }
+
+    @Test
+    void testScheduleRejectsTimersOverCapacity() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 2, 0);
+        assertTrue(wheel.schedule("a", 10));
+        assertTrue(wheel.schedule("b", 10));
+        assertFalse(wheel.schedule("c", 10));
+        assertEquals(2, wheel.advance(10).size());
+        assertTrue(wheel.schedule("c", 20));
+    }
+
+    @Test
+    void testRejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(0, 4, 2, 0));
+    }
+
+    @Test
+    void testMillionTimersFireWithinTheirTick() {
+        int timers = 1_000_000;
+        long tickMillis = 1000;
+        long step = tickMillis * 60;
+        int horizonMillis = 6 * 60 * 60 * 1000;
+        TimingWheel<Long> wheel = new TimingWheel<>(tickMillis, 4096, timers, 0);
+        Random random = new Random(42);
+        for (int i = 0; i < timers; i++) {
+            long deadline = random.nextInt(horizonMillis);
+            assertTrue(wheel.schedule(deadline, deadline));
+        }
+        assertEquals(timers, wheel.size());
+        int fired = 0;
+        for (long now = step; now <= horizonMillis + step; now += step) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline / tickMillis <= now / tickMillis, "таймер сработал раньше своего тика");
+                assertTrue(deadline > now - step - tickMillis, "таймер сработал позже своего тика");
+                fired++;
+            }
+        }
+        assertEquals(timers, fired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.partition;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPartitionMaintenanceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMaintainCreatesMonthsAheadAndArchivesOldYears() {
+        new BookingPartitionMaintenance(jdbcTemplate, 3, 12, "").maintain();
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        verify(jdbcTemplate).queryForObject("SELECT create_booking_partitions(?, ?)", Integer.class, currentMonth, 4);
+        verify(jdbcTemplate).queryForObject(eq("SELECT archive_booking_partitions(?, CAST(? AS TEXT))"), eq(Integer.class),
+                eq(currentMonth.minusMonths(12)), isNull());
+    }
+
+    @Test
+    void testMaintainMovesArchiveToColdTablespace() {
+        new BookingPartitionMaintenance(jdbcTemplate, 1, 24, "cold").maintain();
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        verify(jdbcTemplate).queryForObject("SELECT create_booking_partitions(?, ?)", Integer.class, currentMonth, 2);
+        verify(jdbcTemplate).queryForObject("SELECT archive_booking_partitions(?, CAST(? AS TEXT))", Integer.class,
+                currentMonth.minusMonths(24), "cold");
+    }
+}
@@ -5,18 +5,26 @@ import org.junit.jupiter.api.Assertions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @DataJpaTest
 public class BookingRepositoryTest {
 
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     @Autowired
     private TestEntityManager em;
 
@@ -45,7 +53,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerIdOrderByStartDesc(user.getId(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.ALL, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -77,7 +85,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findByItemOwnerId(owner.getId(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.OWNER, owner.getId(), BookingState.ALL, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -104,7 +112,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findCurrentBookings(user.getId(), LocalDateTime.now(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.CURRENT, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -131,7 +139,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findPastBookings(user.getId(), LocalDateTime.now(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.PAST, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -158,7 +166,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findFutureBookings(user.getId(), LocalDateTime.now(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.FUTURE, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -185,7 +193,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndStatus(user.getId(), BookingStatus.WAITING, Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.WAITING, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -217,7 +225,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findOwnerBookingsByStatus(owner.getId(), BookingStatus.WAITING, Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.OWNER, owner.getId(), BookingState.WAITING, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -249,7 +257,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findPastOwnerBookings(owner.getId(), LocalDateTime.now(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.OWNER, owner.getId(), BookingState.PAST, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -281,7 +289,7 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findCurrentOwnerBookings(owner.getId(), LocalDateTime.now(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.OWNER, owner.getId(), BookingState.CURRENT, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
@@ -313,8 +321,83 @@ public class BookingRepositoryTest {
         booking.setStatus(BookingStatus.WAITING);
         em.persist(booking);
 
-        List<Booking> bookings = bookingRepository.findFutureOwnerBookings(owner.getId(), LocalDateTime.now(), Pageable.unpaged()).getContent();
+        List<BookingDto> bookings = bookingRepository.findBookings(BookingRole.OWNER, owner.getId(), BookingState.FUTURE, LocalDateTime.now(), FIRST_PAGE_START, Long.MAX_VALUE, Pageable.unpaged());
         Assertions.assertEquals(1, bookings.size());
         Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
     }
+
+    @Test
+    void testExistsOverlapping() {
+        User owner = em.persist(new User(null, "Owner", "owner@test.com"));
+        User booker = em.persist(new User(null, "Booker", "booker@test.com"));
+        Item item = em.persist(new Item(null, "Test Item", "Description", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        em.persist(new Booking(null, start, start.plusDays(2), item, booker, BookingStatus.APPROVED));
+        em.persist(new Booking(null, start.plusDays(3), start.plusDays(4), item, booker, BookingStatus.REJECTED));
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        Assertions.assertTrue(bookingRepository.existsOverlapping(item.getId(), start.plusDays(1), start.plusDays(3), active));
+        Assertions.assertFalse(bookingRepository.existsOverlapping(item.getId(), start.plusDays(2), start.plusDays(5), active));
+        Assertions.assertFalse(bookingRepository.existsOverlapping(item.getId(), start.plusDays(1), start.plusDays(3), List.of(BookingStatus.WAITING)));
+    }
+
+    @Test
+    void testOwnerIdIsCopiedFromItemOnSave() {
+        User owner = em.persist(new User(null, "Owner", "owner@test.com"));
+        User booker = em.persist(new User(null, "Booker", "booker@test.com"));
+        Item item = em.persist(new Item(null, "Test Item", "Description", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING));
+        em.flush();
+        em.clear();
+        Assertions.assertEquals(owner.getId(), bookingRepository.findById(booking.getId()).orElseThrow().getOwnerId());
+    }
+
+    @Test
+    void testUpdateStatusesSkipsStaleAndForeignBookings() {
+        User owner = em.persist(new User(null, "Owner", "owner@test.com"));
+        User booker = em.persist(new User(null, "Booker", "booker@test.com"));
+        Item item = em.persist(new Item(null, "Test Item", "Description", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking waiting = em.persist(new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING));
+        Booking rejected = em.persist(new Booking(null, start.plusDays(2), start.plusDays(3), item, booker, BookingStatus.REJECTED));
+        Booking stale = em.persist(new Booking(null, start.plusDays(4), start.plusDays(5), item, booker, BookingStatus.WAITING));
+        em.flush();
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        statuses.put(waiting.getId(), BookingStatus.APPROVED);
+        statuses.put(rejected.getId(), BookingStatus.APPROVED);
+        statuses.put(stale.getId(), BookingStatus.REJECTED);
+        Map<Long, Long> versions = Map.of(
+                waiting.getId(), waiting.getVersion(),
+                rejected.getId(), rejected.getVersion(),
+                stale.getId(), stale.getVersion() - 1);
+        Assertions.assertEquals(List.of(true, true, false), bookingRepository.updateStatuses(owner.getId(), statuses, versions));
+        Assertions.assertEquals(List.of(false), bookingRepository.updateStatuses(owner.getId(),
+                Map.of(waiting.getId(), BookingStatus.REJECTED), versions));
+        Assertions.assertEquals(List.of(false), bookingRepository.updateStatuses(booker.getId(),
+                Map.of(stale.getId(), BookingStatus.REJECTED), Map.of(stale.getId(), stale.getVersion())));
+        em.clear();
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingRepository.findById(waiting.getId()).orElseThrow().getStatus());
+        Assertions.assertEquals(BookingStatus.APPROVED, bookingRepository.findById(rejected.getId()).orElseThrow().getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, bookingRepository.findById(stale.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testDatabaseRejectsOverlappingActiveBookings() {
+        User owner = em.persist(new User(null, "Owner", "owner@test.com"));
+        User booker = em.persist(new User(null, "Booker", "booker@test.com"));
+        Item item = em.persist(new Item(null, "Test Item", "Description", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingRepository.saveAndFlush(new Booking(null, start, start.plusDays(2), item, booker, BookingStatus.APPROVED));
+
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(
+                new Booking(null, start.plusDays(1), start.plusDays(3), item, booker, BookingStatus.WAITING)));
+        em.clear();
+        Booking rejected = bookingRepository.saveAndFlush(
+                new Booking(null, start.plusDays(1), start.plusDays(3), item, booker, BookingStatus.REJECTED));
+        Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> bookingRepository.updateStatus(rejected.getId(), BookingStatus.REJECTED, BookingStatus.APPROVED));
+        em.clear();
+        // периоды полуоткрытые: бронирование, начинающееся в момент окончания другого, не пересекается с ним
+        bookingRepository.saveAndFlush(new Booking(null, start.plusDays(2), start.plusDays(4), item, booker, BookingStatus.WAITING));
+    }
 }
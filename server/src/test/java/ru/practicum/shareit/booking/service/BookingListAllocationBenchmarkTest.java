@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает память, выделяемую на запрос списка бронирований пользователя, при выборке сразу в BookingDto
+ * и при прежнем пути, когда бронирования, вещи и пользователи загружались сущностями в контекст
+ * постоянства со снимками для проверки изменений и только потом переводились в DTO. Страницы из 10, 100
+ * и 1000 бронирований.
+ */
+@Tag("perf")
+@Slf4j
+@SpringBootTest(
+        // журнал SQL и транзакций на каждый вызов искажает замер
+        properties = {"db.name=test", "spring.jpa.show-sql=false", "logging.level.org.springframework.transaction=INFO",
+                "logging.level.org.springframework.orm.jpa=INFO", "logging.level.com.zaxxer.hikari=INFO"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingListAllocationBenchmarkTest {
+
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final List<Integer> PAGE_SIZES = List.of(10, 100, 1000);
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private User owner;
+    private User booker;
+
+    @BeforeAll
+    void createBookings() {
+        owner = userRepository.save(new User(null, "Владелец", "bookings.benchmark.owner@example.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "bookings.benchmark.booker@example.com"));
+        LocalDateTime origin = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(new Item(null, "Вещь " + i, "Описание вещи " + i, true, owner, null));
+            items.add(item);
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                LocalDateTime start = origin.plusDays(j * 2L).plusMinutes(i);
+                bookings.add(new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.values()[j % 3]));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @AfterAll
+    void deleteBookings() {
+        bookingRepository.deleteAll(bookings);
+        itemRepository.deleteAll(items);
+        userRepository.deleteAll(List.of(owner, booker));
+    }
+
+    @Test
+    void testProjectionAllocatesLessPerBookingThanEntities() {
+        Map<Integer, Measurement> entities = new LinkedHashMap<>();
+        Map<Integer, Measurement> projection = new LinkedHashMap<>();
+        for (int size : PAGE_SIZES) {
+            assertEquals(loadEntities(size), bookingService.getUserBookings(booker.getId(), "ALL", 0, size));
+            entities.put(size, measure(() -> loadEntities(size)));
+            projection.put(size, measure(() -> bookingService.getUserBookings(booker.getId(), "ALL", 0, size)));
+            log.info("Страница из {} бронирований: сущности — {} байт, {} мкс; проекция — {} байт, {} мкс", size,
+                    entities.get(size).bytesPerRequest, entities.get(size).nanosPerRequest / 1000,
+                    projection.get(size).bytesPerRequest, projection.get(size).nanosPerRequest / 1000);
+        }
+
+        // на маленькой странице память уходит в основном на транзакцию и разбор запроса, одинаковые для обоих путей,
+        // поэтому сравнивается прирост памяти на одно бронирование между самой маленькой и самой большой страницей
+        long entityBytesPerBooking = bytesPerBooking(entities);
+        long projectionBytesPerBooking = bytesPerBooking(projection);
+        log.info("Память на бронирование: сущности — {} байт, проекция — {} байт", entityBytesPerBooking, projectionBytesPerBooking);
+        assertTrue(projectionBytesPerBooking < entityBytesPerBooking,
+                "память на бронирование с проекцией: " + projectionBytesPerBooking + " байт, с сущностями: "
+                        + entityBytesPerBooking + " байт");
+        int largest = PAGE_SIZES.get(PAGE_SIZES.size() - 1);
+        assertTrue(projection.get(largest).bytesPerRequest < entities.get(largest).bytesPerRequest,
+                "страница: " + largest + ", память на запрос с проекцией: " + projection.get(largest).bytesPerRequest
+                        + " байт, с сущностями: " + entities.get(largest).bytesPerRequest + " байт");
+    }
+
+    private static long bytesPerBooking(Map<Integer, Measurement> measurements) {
+        int smallest = PAGE_SIZES.get(0);
+        int largest = PAGE_SIZES.get(PAGE_SIZES.size() - 1);
+        return (measurements.get(largest).bytesPerRequest - measurements.get(smallest).bytesPerRequest) / (largest - smallest);
+    }
+
+    /**
+     * Прежний путь getUserBookings: сущности со связями загружаются в транзакцию на запись и переводятся в DTO.
+     * Связи выбираются тем же запросом, поэтому разница с проекцией — только в гидратации и снимках.
+     */
+    private List<BookingDto> loadEntities(int size) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            userRepository.findById(booker.getId()).orElseThrow();
+            return em.createQuery("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker "
+                            + "WHERE b.booker.id = :userId ORDER BY b.start DESC, b.id DESC", Booking.class)
+                    .setParameter("userId", booker.getId())
+                    .setMaxResults(size)
+                    .getResultList().stream()
+                    .map(BookingMapper::toBookingDto)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private static Measurement measure(Supplier<List<BookingDto>> listing) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            listing.get();
+        }
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            listing.get();
+        }
+        long nanos = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(allocated / ITERATIONS, nanos / ITERATIONS);
+    }
+
+    private static class Measurement {
+        private final long bytesPerRequest;
+        private final long nanosPerRequest;
+
+        private Measurement(long bytesPerRequest, long nanosPerRequest) {
+            this.bytesPerRequest = bytesPerRequest;
+            this.nanosPerRequest = nanosPerRequest;
+        }
+    }
+}
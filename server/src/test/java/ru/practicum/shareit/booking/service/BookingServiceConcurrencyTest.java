@@ -0,0 +1,230 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.AlreadyExistsException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 2000;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private LocalDateTime origin;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "Владелец", "concurrency.owner@example.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "concurrency.booker@example.com"));
+        users.add(owner);
+        users.add(booker);
+        for (int i = 0; i <= THREADS; i++) {
+            items.add(itemRepository.save(new Item(null, "Вещь " + i, "Описание " + i, true, owner, null)));
+        }
+        origin = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Set<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .collect(Collectors.toList()));
+        itemRepository.deleteAllById(itemIds);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void testConflictingBookingsNeverOverlap() throws Exception {
+        Item item = items.get(0);
+        Long bookerId = users.get(1).getId();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                Random random = new Random(thread);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ATTEMPTS / THREADS; i++) {
+                        LocalDateTime start = origin.plusHours(random.nextInt(500));
+                        LocalDateTime end = start.plusHours(1 + random.nextInt(12));
+                        try {
+                            bookingService.addBooking(bookerId, new BookingDto(null, start, end, item.getId(), null, null, null));
+                            created.incrementAndGet();
+                        } catch (AlreadyExistsException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        List<Booking> bookings = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .sorted(Comparator.comparing(Booking::getStart))
+                .collect(Collectors.toList());
+        assertThat(created.get() + rejected.get(), equalTo(ATTEMPTS));
+        assertThat(rejected.get(), greaterThan(0));
+        assertThat(bookings.size(), equalTo(created.get()));
+        for (int i = 1; i < bookings.size(); i++) {
+            assertThat(bookings.get(i).getStart(), greaterThanOrEqualTo(bookings.get(i - 1).getEnd()));
+        }
+    }
+
+    @Test
+    void testBookingsOfDifferentItemsDoNotConflict() throws Exception {
+        Long bookerId = users.get(1).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                Item item = items.get(thread + 1);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ATTEMPTS / THREADS; i++) {
+                        LocalDateTime start = origin.plusHours(i);
+                        bookingService.addBooking(bookerId, new BookingDto(null, start, start.plusHours(1), item.getId(), null, null, null));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Set<Long> itemIds = items.subList(1, items.size()).stream().map(Item::getId).collect(Collectors.toSet());
+        long bookings = bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .count();
+        assertThat(bookings, equalTo((long) ATTEMPTS));
+    }
+
+    @Test
+    void testConcurrentStatusChangesHaveSingleWinner() throws Exception {
+        Item item = items.get(0);
+        Long ownerId = users.get(0).getId();
+        Long bookerId = users.get(1).getId();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS / THREADS; i++) {
+            LocalDateTime start = origin.plusHours(i);
+            bookingIds.add(bookingService.addBooking(bookerId, new BookingDto(null, start, start.plusHours(1), item.getId(), null, null, null)).getId());
+        }
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger lost = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (Long bookingId : bookingIds) {
+                        try {
+                            bookingService.updateBookingStatus(bookingId, ownerId, true);
+                            approved.incrementAndGet();
+                        } catch (AlreadyExistsException | ValidationException e) {
+                            lost.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(approved.get(), equalTo(bookingIds.size()));
+        assertThat(lost.get(), equalTo(bookingIds.size() * (THREADS - 1)));
+        for (Long bookingId : bookingIds) {
+            Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+            assertThat(booking.getStatus(), equalTo(BookingStatus.APPROVED));
+            assertThat(booking.getVersion(), equalTo(1L));
+        }
+    }
+
+    @Test
+    void testConcurrentItemUpdatesDoNotOverwriteEachOther() throws Exception {
+        Item item = items.get(0);
+        Long ownerId = users.get(0).getId();
+        AtomicInteger updated = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadIndex = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ATTEMPTS / THREADS; i++) {
+                        try {
+                            itemService.updateItem(item.getId(), ownerId, new ItemUpdateDto(item.getId(), null, "Описание " + threadIndex + "-" + i, threadIndex % 2 == 0));
+                            updated.incrementAndGet();
+                        } catch (ObjectOptimisticLockingFailureException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(updated.get() + conflicts.get(), equalTo(ATTEMPTS));
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getVersion(), equalTo((long) updated.get()));
+    }
+}
@@ -6,12 +6,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UnsupportedException;
 import ru.practicum.shareit.item.model.Item;
@@ -21,7 +30,9 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.validation.ValidationException;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +50,15 @@ class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemBookingLocks itemBookingLocks;
+
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @Mock
+    private BookingLifecycleScheduler bookingLifecycleScheduler;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -69,6 +89,21 @@ class BookingServiceImplTest {
         assertNotNull(result);
         assertEquals(bookingDto.getItemId(), result.getItemId());
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(itemAvailabilityIndex).add(booking);
+    }
+
+    @Test
+    void testAddBooking_Overlapping() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(eq(item.getId()), eq(bookingDto.getStart()), eq(bookingDto.getEnd()), anyCollection()))
+                .thenReturn(true);
+        Exception exception = assertThrows(AlreadyExistsException.class, () -> {
+            bookingService.addBooking(user.getId(), bookingDto);
+        });
+        assertEquals("Вещь уже забронирована на эти даты", exception.getMessage());
+        verify(itemBookingLocks).lockUntilCompletion(item.getId());
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -126,11 +161,61 @@ class BookingServiceImplTest {
     @Test
     void testUpdateBookingStatus() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
         BookingDto result = bookingService.updateBookingStatus(booking.getId(), owner.getId(), true);
         assertNotNull(result);
         assertEquals(BookingStatus.APPROVED, result.getStatus());
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.APPROVED);
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(itemAvailabilityIndex).add(booking);
+        verify(bookingLifecycleScheduler).schedule(booking);
+    }
+
+    @Test
+    void testUpdateBookingStatus_ChangedConcurrently() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(0);
+        Exception exception = assertThrows(AlreadyExistsException.class, () -> {
+            bookingService.updateBookingStatus(booking.getId(), owner.getId(), false);
+        });
+        assertEquals("Статус бронирования уже изменен другим запросом", exception.getMessage());
+        verifyNoInteractions(itemAvailabilityIndex);
+    }
+
+    @Test
+    void testUpdateBookingStatus_ApprovingRejectedOverlaps() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsOverlappingOther(eq(item.getId()), eq(booking.getId()), eq(booking.getStart()), eq(booking.getEnd()), anyCollection()))
+                .thenReturn(true);
+        Exception exception = assertThrows(AlreadyExistsException.class, () -> {
+            bookingService.updateBookingStatus(booking.getId(), owner.getId(), true);
+        });
+        assertEquals("Вещь уже забронирована на эти даты", exception.getMessage());
+        verify(itemBookingLocks).lockUntilCompletion(item.getId());
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(), any());
+    }
+
+    @Test
+    void testUpdateBookingStatus_DatabaseRejectsOverlap() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), BookingStatus.REJECTED, BookingStatus.APPROVED))
+                .thenThrow(new DataIntegrityViolationException("bookings_no_overlap"));
+        Exception exception = assertThrows(AlreadyExistsException.class, () -> {
+            bookingService.updateBookingStatus(booking.getId(), owner.getId(), true);
+        });
+        assertEquals("Вещь уже забронирована на эти даты", exception.getMessage());
+        verifyNoInteractions(itemAvailabilityIndex);
+    }
+
+    @Test
+    void testUpdateBookingStatus_RejectDoesNotLockItem() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(booking.getId(), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
+        bookingService.updateBookingStatus(booking.getId(), owner.getId(), false);
+        verifyNoInteractions(itemBookingLocks);
+        verify(bookingRepository, never()).existsOverlappingOther(anyLong(), anyLong(), any(), any(), anyCollection());
     }
 
     @Test
@@ -161,6 +246,124 @@ class BookingServiceImplTest {
         assertEquals("Бронирование уже подтверждено", exception.getMessage());
     }
 
+    @Test
+    void testUpdateBookingStatuses() {
+        booking.setOwnerId(owner.getId());
+        Booking approved = new Booking(2L, booking.getStart(), booking.getEnd(), item, user, BookingStatus.APPROVED);
+        approved.setOwnerId(owner.getId());
+        Booking foreign = new Booking(3L, booking.getStart(), booking.getEnd(), item, user, BookingStatus.WAITING);
+        foreign.setOwnerId(user.getId());
+        booking.setVersion(3L);
+        Map<Long, BookingStatus> statuses = new LinkedHashMap<>();
+        statuses.put(booking.getId(), BookingStatus.REJECTED);
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(booking, approved, foreign));
+        when(bookingRepository.updateStatuses(owner.getId(), statuses, Map.of(booking.getId(), 3L))).thenReturn(List.of(true));
+        List<BookingDecisionResultDto> results = bookingService.updateBookingStatuses(owner.getId(), List.of(
+                new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(booking.getId(), false),
+                new BookingDecisionDto(approved.getId(), true),
+                new BookingDecisionDto(foreign.getId(), true)));
+        assertEquals(List.of(
+                BookingDecisionResultDto.failed(4L, "Бронирование не найдено"),
+                BookingDecisionResultDto.updated(booking.getId(), BookingStatus.REJECTED),
+                BookingDecisionResultDto.failed(approved.getId(), "Бронирование уже подтверждено"),
+                BookingDecisionResultDto.failed(foreign.getId(), "Пользователь не является владельцем вещи")), results);
+        verify(bookingRepository, times(1)).findAllById(anyCollection());
+        verify(itemAvailabilityIndex).add(argThat(updated -> updated.getId().equals(booking.getId()) && updated.getStatus() == BookingStatus.REJECTED));
+    }
+
+    @Test
+    void testUpdateBookingStatuses_DuplicateAndConcurrentlyChanged() {
+        booking.setOwnerId(owner.getId());
+        Booking other = new Booking(2L, booking.getStart(), booking.getEnd(), item, user, BookingStatus.WAITING);
+        other.setOwnerId(owner.getId());
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(booking, other));
+        when(bookingRepository.updateStatuses(eq(owner.getId()), eq(Map.of(other.getId(), BookingStatus.APPROVED)), anyMap())).thenReturn(List.of(false));
+        List<BookingDecisionResultDto> results = bookingService.updateBookingStatuses(owner.getId(), List.of(
+                new BookingDecisionDto(booking.getId(), true),
+                new BookingDecisionDto(other.getId(), true),
+                new BookingDecisionDto(booking.getId(), false)));
+        assertEquals(List.of(
+                BookingDecisionResultDto.failed(booking.getId(), "Решение по бронированию передано несколько раз"),
+                BookingDecisionResultDto.failed(other.getId(), "Статус бронирования уже изменен другим запросом")), results);
+        verifyNoInteractions(itemAvailabilityIndex);
+    }
+
+    @Test
+    void testUpdateBookingStatuses_OverlappingApprovals() {
+        booking.setStatus(BookingStatus.REJECTED);
+        booking.setOwnerId(owner.getId());
+        Booking sameBatch = new Booking(2L, booking.getStart().plusHours(1), booking.getEnd().plusHours(1), item, user, BookingStatus.REJECTED);
+        sameBatch.setOwnerId(owner.getId());
+        Booking taken = new Booking(3L, booking.getEnd().plusDays(1), booking.getEnd().plusDays(2), item, user, BookingStatus.REJECTED);
+        taken.setOwnerId(owner.getId());
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(booking, sameBatch, taken));
+        when(bookingRepository.existsOverlappingOther(eq(item.getId()), anyLong(), any(), any(), anyCollection()))
+                .thenAnswer(invocation -> taken.getId().equals(invocation.getArgument(1)));
+        when(bookingRepository.updateStatuses(eq(owner.getId()), eq(Map.of(booking.getId(), BookingStatus.APPROVED)), anyMap())).thenReturn(List.of(true));
+        List<BookingDecisionResultDto> results = bookingService.updateBookingStatuses(owner.getId(), List.of(
+                new BookingDecisionDto(booking.getId(), true),
+                new BookingDecisionDto(sameBatch.getId(), true),
+                new BookingDecisionDto(taken.getId(), true)));
+        assertEquals(List.of(
+                BookingDecisionResultDto.updated(booking.getId(), BookingStatus.APPROVED),
+                BookingDecisionResultDto.failed(sameBatch.getId(), "Вещь уже забронирована на эти даты"),
+                BookingDecisionResultDto.failed(taken.getId(), "Вещь уже забронирована на эти даты")), results);
+        verify(itemBookingLocks).lockAllUntilCompletion(List.of(item.getId(), item.getId(), item.getId()));
+    }
+
+    @Test
+    void testUpdateBookingStatuses_DatabaseRejectsOverlap() {
+        booking.setOwnerId(owner.getId());
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(booking));
+        when(bookingRepository.updateStatuses(eq(owner.getId()), eq(Map.of(booking.getId(), BookingStatus.APPROVED)), anyMap()))
+                .thenThrow(new DataIntegrityViolationException("bookings_no_overlap"));
+        Exception exception = assertThrows(AlreadyExistsException.class, () -> {
+            bookingService.updateBookingStatuses(owner.getId(), List.of(new BookingDecisionDto(booking.getId(), true)));
+        });
+        assertEquals("Вещь уже забронирована на эти даты", exception.getMessage());
+    }
+
+    @Test
+    void testGetItemAvailability() {
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(itemAvailabilityIndex.isFree(item.getId(), start, end)).thenReturn(false);
+        when(itemAvailabilityIndex.findNextFreeStart(item.getId(), start, end)).thenReturn(end);
+        ItemAvailabilityDto result = bookingService.getItemAvailability(item.getId(), start, end);
+        assertFalse(result.getAvailable());
+        assertEquals(end, result.getNextFreeStart());
+    }
+
+    @Test
+    void testGetItemAvailability_Free() {
+        LocalDateTime start = booking.getStart();
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+        when(itemAvailabilityIndex.isFree(item.getId(), start, booking.getEnd())).thenReturn(true);
+        ItemAvailabilityDto result = bookingService.getItemAvailability(item.getId(), start, booking.getEnd());
+        assertTrue(result.getAvailable());
+        assertEquals(start, result.getNextFreeStart());
+        verify(itemAvailabilityIndex, never()).findNextFreeStart(anyLong(), any(), any());
+    }
+
+    @Test
+    void testGetItemAvailability_ItemNotFound() {
+        when(itemRepository.existsById(item.getId())).thenReturn(false);
+        Exception exception = assertThrows(NotFoundException.class, () -> {
+            bookingService.getItemAvailability(item.getId(), booking.getStart(), booking.getEnd());
+        });
+        assertEquals("Вещь не найдена", exception.getMessage());
+    }
+
+    @Test
+    void testGetItemAvailability_StartAfterEnd() {
+        Exception exception = assertThrows(ValidationException.class, () -> {
+            bookingService.getItemAvailability(item.getId(), booking.getEnd(), booking.getStart());
+        });
+        assertEquals("Дата начала периода должна быть раньше даты окончания", exception.getMessage());
+    }
+
     @Test
     void testGetBooking() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
@@ -190,8 +393,8 @@ class BookingServiceImplTest {
     @Test
     void testGetUserBookings() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdOrderByStartDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.ALL), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
         List<BookingDto> result = bookingService.getUserBookings(user.getId(), "ALL", 0, 10);
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -210,8 +413,8 @@ class BookingServiceImplTest {
     @Test
     void testGetOwnerBookings() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItemOwnerId(anyLong(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.ALL), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
         List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), "ALL", 0, 10);
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -230,8 +433,8 @@ class BookingServiceImplTest {
     @Test
     void testGetUserBookings_Current() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findCurrentBookings(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.CURRENT), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getUserBookings(user.getId(), "CURRENT", 0, 10);
 
@@ -243,8 +446,8 @@ class BookingServiceImplTest {
     @Test
     void testGetUserBookings_Past() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findPastBookings(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.PAST), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getUserBookings(user.getId(), "PAST", 0, 10);
 
@@ -256,8 +459,8 @@ class BookingServiceImplTest {
     @Test
     void testGetUserBookings_Future() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findFutureBookings(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.FUTURE), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getUserBookings(user.getId(), "FUTURE", 0, 10);
 
@@ -269,8 +472,8 @@ class BookingServiceImplTest {
     @Test
     void testGetUserBookings_Waiting() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), eq(BookingStatus.WAITING), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.WAITING), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getUserBookings(user.getId(), "WAITING", 0, 10);
 
@@ -282,8 +485,8 @@ class BookingServiceImplTest {
     @Test
     void testGetUserBookings_Rejected() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), eq(BookingStatus.REJECTED), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.REJECTED), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getUserBookings(user.getId(), "REJECTED", 0, 10);
 
@@ -295,8 +498,8 @@ class BookingServiceImplTest {
     @Test
     void testGetOwnerBookings_Current() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findCurrentOwnerBookings(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.CURRENT), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), "CURRENT", 0, 10);
 
@@ -308,8 +511,8 @@ class BookingServiceImplTest {
     @Test
     void testGetOwnerBookings_Past() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findPastOwnerBookings(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.PAST), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), "PAST", 0, 10);
 
@@ -321,8 +524,8 @@ class BookingServiceImplTest {
     @Test
     void testGetOwnerBookings_Future() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findFutureOwnerBookings(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.FUTURE), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), "FUTURE", 0, 10);
 
@@ -334,8 +537,8 @@ class BookingServiceImplTest {
     @Test
     void testGetOwnerBookings_Waiting() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findOwnerBookingsByStatus(anyLong(), eq(BookingStatus.WAITING), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.WAITING), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), "WAITING", 0, 10);
 
@@ -347,8 +550,8 @@ class BookingServiceImplTest {
     @Test
     void testGetOwnerBookings_Rejected() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findOwnerBookingsByStatus(anyLong(), eq(BookingStatus.REJECTED), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.REJECTED), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking)));
 
         List<BookingDto> result = bookingService.getOwnerBookings(owner.getId(), "REJECTED", 0, 10);
 
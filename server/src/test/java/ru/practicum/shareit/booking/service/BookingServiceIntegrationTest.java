@@ -1,25 +1,40 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.util.SqlStatementCounter;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
 
 @Transactional
 @SpringBootTest(
@@ -33,6 +48,9 @@ public class BookingServiceIntegrationTest {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
 
+    @SpyBean
+    private BookingRepository bookingRepository;
+
     @Test
     void testAddBookingIntegration() {
         User owner = new User(null, "Иван Иванов", "ivan.ivanov@example.com");
@@ -54,4 +72,105 @@ public class BookingServiceIntegrationTest {
         assertThat(savedBooking.getBooker().getId(), equalTo(booker.getId()));
         assertThat(savedBooking.getStatus(), equalTo(BookingStatus.WAITING));
     }
+
+    @Test
+    void testGetUserBookingsWithCursorIntegration() {
+        User owner = userRepository.save(new User(null, "Петр Петров", "petr.petrov@example.com"));
+        User booker = userRepository.save(new User(null, "Мария Петрова", "maria.petrova@example.com"));
+        Item item = itemRepository.save(new Item(null, "Предмет", "Описание предмета", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1), item, booker, BookingStatus.WAITING));
+        }
+        List<BookingDto> firstPage = bookingService.getUserBookings(booker.getId(), "ALL", 0, 2);
+        BookingDto last = firstPage.get(firstPage.size() - 1);
+        String cursor = PageCursor.of(last.getStart(), last.getId()).encode();
+        List<BookingDto> secondPage = bookingService.getUserBookings(booker.getId(), "ALL", cursor, 2);
+        assertThat(secondPage, hasSize(2));
+        assertThat(secondPage.get(0).getStart(), equalTo(start.plusDays(2)));
+        assertThat(secondPage.get(0).getId(), equalTo(bookingService.getUserBookings(booker.getId(), "ALL", 2, 2).get(0).getId()));
+        String lastCursor = PageCursor.of(secondPage.get(1).getStart(), secondPage.get(1).getId()).encode();
+        assertThat(bookingService.getUserBookings(booker.getId(), "ALL", lastCursor, 2), hasSize(1));
+    }
+
+    @Test
+    void testGetBookingsRunsSingleQueryPerRequest() {
+        User owner = userRepository.save(new User(null, "Олег Олегов", "oleg.olegov@example.com"));
+        User booker = userRepository.save(new User(null, "Анна Андреева", "anna.andreeva@example.com"));
+        Item item = itemRepository.save(new Item(null, "Предмет", "Описание предмета", true, owner, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        em.persist(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, BookingStatus.APPROVED));
+        em.persist(new Booking(null, now.minusDays(1), now.plusDays(1), item, booker, BookingStatus.APPROVED));
+        em.persist(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.WAITING));
+        em.persist(new Booking(null, now.plusDays(3), now.plusDays(4), item, booker, BookingStatus.REJECTED));
+        em.flush();
+        String cursor = PageCursor.of(now.plusDays(10), Long.MAX_VALUE).encode();
+        SqlStatementCounter counter = new SqlStatementCounter(em.getEntityManagerFactory());
+        for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
+            em.clear();
+            counter.reset();
+            assertThat(bookingService.getUserBookings(booker.getId(), state, 0, 1), hasSize(1));
+            assertThat(state, counter.count(), equalTo(2L));
+            assertThat(em.unwrap(Session.class).getStatistics().getEntityCount(), equalTo(1));
+            em.clear();
+            counter.reset();
+            assertThat(bookingService.getOwnerBookings(owner.getId(), state, cursor, 1), hasSize(1));
+            assertThat(state, counter.count(), equalTo(2L));
+        }
+    }
+
+    @Test
+    void testGetBookingLoadsItemAndBookerInOneQuery() {
+        User owner = userRepository.save(new User(null, "Денис Денисов", "denis.denisov@example.com"));
+        User booker = userRepository.save(new User(null, "Вера Верова", "vera.verova@example.com"));
+        Item item = itemRepository.save(new Item(null, "Предмет", "Описание предмета", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.WAITING);
+        em.persist(booking);
+        em.flush();
+        em.clear();
+        SqlStatementCounter counter = new SqlStatementCounter(em.getEntityManagerFactory());
+        BookingDto bookingDto = bookingService.getBooking(booking.getId(), owner.getId());
+        assertThat(counter.count(), equalTo(1L));
+        assertThat(bookingDto.getBooker().getName(), equalTo(booker.getName()));
+        assertThat(bookingDto.getItem().getName(), equalTo(item.getName()));
+        assertThat(bookingDto.getItem().getOwner(), equalTo(owner.getId()));
+    }
+
+    @Test
+    void testDatabaseGuardRejectsOverlapMissedByServiceCheck() {
+        User owner = userRepository.save(new User(null, "Захар Захаров", "zahar.zaharov@example.com"));
+        User booker = userRepository.save(new User(null, "Ева Евина", "eva.evina@example.com"));
+        Item item = itemRepository.save(new Item(null, "Предмет", "Описание предмета", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        em.persist(new Booking(null, start, start.plusDays(2), item, booker, BookingStatus.APPROVED));
+        em.flush();
+        // проверка сервиса не видит пересечения, как при параллельной вставке из другого узла
+        doReturn(false).when(bookingRepository).existsOverlapping(anyLong(), any(), any(), anyCollection());
+
+        BookingDto overlapping = new BookingDto(null, start.plusDays(1), start.plusDays(3), item.getId(), null, null, BookingStatus.WAITING);
+        AlreadyExistsException exception = assertThrows(AlreadyExistsException.class,
+                () -> bookingService.addBooking(booker.getId(), overlapping));
+        assertThat(exception.getMessage(), equalTo("Вещь уже забронирована на эти даты"));
+    }
+
+    @Test
+    void testReapprovingRejectedBookingCannotOverlapActiveBooking() {
+        User owner = userRepository.save(new User(null, "Глеб Глебов", "gleb.glebov@example.com"));
+        User booker = userRepository.save(new User(null, "Инна Иннова", "inna.innova@example.com"));
+        Item item = itemRepository.save(new Item(null, "Предмет", "Описание предмета", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Booking rejected = new Booking(null, start, start.plusDays(2), item, booker, BookingStatus.REJECTED);
+        em.persist(rejected);
+        em.persist(new Booking(null, start.plusDays(1), start.plusDays(3), item, booker, BookingStatus.APPROVED));
+        em.flush();
+
+        AlreadyExistsException exception = assertThrows(AlreadyExistsException.class,
+                () -> bookingService.updateBookingStatus(rejected.getId(), owner.getId(), true));
+        assertThat(exception.getMessage(), equalTo("Вещь уже забронирована на эти даты"));
+        assertThat(bookingService.updateBookingStatuses(owner.getId(), List.of(new BookingDecisionDto(rejected.getId(), true))),
+                equalTo(List.of(BookingDecisionResultDto.failed(rejected.getId(), "Вещь уже забронирована на эти даты"))));
+        em.clear();
+        assertThat(em.find(Booking.class, rejected.getId()).getStatus(), equalTo(BookingStatus.REJECTED));
+    }
 }
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность создания бронирований разных вещей при росте числа потоков. Бронирования разных вещей
+ * берут разные полосы блокировки, поэтому пропускная способность должна расти вместе с числом потоков, пока
+ * хватает процессоров; на большем числе потоков она не должна падать.
+ */
+@Tag("perf")
+@Slf4j
+@SpringBootTest(
+        // журнал SQL и транзакций на каждый вызов искажает замер
+        properties = {"db.name=test", "spring.jpa.show-sql=false", "logging.level.org.springframework.transaction=INFO",
+                "logging.level.org.springframework.orm.jpa=INFO", "logging.level.com.zaxxer.hikari=INFO"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingThroughputBenchmarkTest {
+
+    private static final List<Integer> THREAD_COUNTS = List.of(1, 2, 4, 8);
+    private static final int BOOKINGS_PER_THREAD = 300;
+    private static final double MIN_SCALING_EFFICIENCY = 0.5;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private final List<Item> items = new ArrayList<>();
+    private User owner;
+    private User booker;
+    private LocalDateTime origin;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Владелец", "throughput.owner@example.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "throughput.booker@example.com"));
+        int maxThreads = THREAD_COUNTS.get(THREAD_COUNTS.size() - 1);
+        for (int i = 0; i < maxThreads; i++) {
+            items.add(itemRepository.save(new Item(null, "Вещь " + i, "Описание " + i, true, owner, null)));
+        }
+        origin = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Set<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .collect(Collectors.toList()));
+        itemRepository.deleteAllById(itemIds);
+        userRepository.deleteAll(List.of(owner, booker));
+    }
+
+    @Test
+    void testThroughputGrowsWithThreadsForDifferentItems() throws Exception {
+        // прогрев: первые бронирования платят за JIT и подготовку запросов
+        run(1, 0);
+        Map<Integer, Double> throughput = new LinkedHashMap<>();
+        for (int round = 0; round < THREAD_COUNTS.size(); round++) {
+            int threads = THREAD_COUNTS.get(round);
+            throughput.put(threads, run(threads, round + 1));
+            log.info("Бронирования разных вещей в {} потоков: {} в секунду", threads, Math.round(throughput.get(threads)));
+        }
+
+        Set<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+        long created = bookingRepository.findAll().stream()
+                .map(Booking::getItem)
+                .filter(item -> itemIds.contains(item.getId()))
+                .count();
+        assertEquals((long) BOOKINGS_PER_THREAD * (1 + THREAD_COUNTS.stream().mapToInt(Integer::intValue).sum()), created);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        double single = throughput.get(1);
+        for (Map.Entry<Integer, Double> entry : throughput.entrySet()) {
+            int parallelism = Math.min(entry.getKey(), processors);
+            assertTrue(entry.getValue() >= single * parallelism * MIN_SCALING_EFFICIENCY,
+                    "потоков: " + entry.getKey() + ", процессоров: " + processors + ", бронирований в секунду: "
+                            + Math.round(entry.getValue()) + ", в одном потоке: " + Math.round(single));
+        }
+    }
+
+    /**
+     * Каждый поток бронирует свою вещь на непересекающиеся часы; раунды сдвинуты по времени, чтобы не пересекаться
+     * с бронированиями прошлых раундов. Возвращает число созданных бронирований в секунду.
+     */
+    private double run(int threads, int round) throws Exception {
+        Long bookerId = booker.getId();
+        LocalDateTime roundStart = origin.plusHours((long) round * BOOKINGS_PER_THREAD);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                Item item = items.get(thread);
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                        LocalDateTime start = roundStart.plusHours(i);
+                        bookingService.addBooking(bookerId, new BookingDto(null, start, start.plusHours(1), item.getId(), null, null, null));
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long nanos = System.nanoTime() - startedAt;
+            return threads * BOOKINGS_PER_THREAD * 1e9 / nanos;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
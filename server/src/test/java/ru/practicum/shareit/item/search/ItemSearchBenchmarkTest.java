@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает поиск по индексу вещей с запросом LIKE по таблице items на каталогах из 10 тысяч, 100 тысяч
+ * и миллиона вещей: время ответа на страницу поиска, включая загрузку найденных вещей из базы. Проверяются
+ * целое слово и обрывки слов, для которых индекс сужает кандидатов по триграммам, а LIKE ищет подстроку.
+ * Каталог наращивается между размерами, поэтому вещи вставляются в базу и в индекс один раз.
+ */
+@Tag("perf")
+@Slf4j
+@SpringBootTest(
+        // журнал SQL и транзакций на каждый вызов искажает замер
+        properties = {"db.name=test", "spring.jpa.show-sql=false", "logging.level.org.springframework.transaction=INFO",
+                "logging.level.org.springframework.orm.jpa=INFO", "logging.level.com.zaxxer.hikari=INFO"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemSearchBenchmarkTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int RARE_ITEM_EVERY = 100_000;
+    private static final int SMALLEST_CATALOG = 10_000;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+    private static final String[] NOUNS = {"Дрель", "Шуруповерт", "Лобзик", "Болгарка", "Рубанок", "Стремянка",
+            "Палатка", "Велосипед", "Самокат", "Гамак", "Мангал", "Пылесос", "Утюг", "Проектор", "Удочка"};
+    private static final String[] ADJECTIVES = {"аккумуляторный", "сетевой", "компактный", "легкий", "походный",
+            "профессиональный", "детский", "складной", "мощный", "запасной", "бытовой"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User owner;
+    private ItemSearchIndex index;
+    private LikeItemSearchEngine like;
+    private int catalogSize;
+
+    @BeforeAll
+    void createOwner() {
+        owner = userRepository.save(new User(null, "Владелец каталога", "search.benchmark@example.com"));
+        index = new ItemSearchIndex(itemRepository);
+        like = new LikeItemSearchEngine(itemRepository);
+    }
+
+    @AfterAll
+    void deleteCatalog() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+        userRepository.delete(owner);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void testIndexAnswersFasterThanLike(int size) {
+        growCatalog(size);
+        String word = "перфоратор";
+        assertEquals(ids(like.searchAfter(word, 0, PAGE_SIZE)), ids(index.searchAfter(word, 0, PAGE_SIZE)));
+        compare(size, word, () -> like.searchAfter(word, 0, PAGE_SIZE), () -> index.searchAfter(word, 0, PAGE_SIZE));
+
+        // обрывки слов, как их вводят пользователи: редкий, частый и из двух букв; LIKE здесь — ItemRepository.search
+        for (String fragment : List.of("рфорат", "аккум", "др")) {
+            assertEquals(ids(like.search(fragment, 0, PAGE_SIZE)), ids(index.search(fragment, 0, PAGE_SIZE)));
+            compare(size, fragment, () -> like.search(fragment, 0, PAGE_SIZE), () -> index.search(fragment, 0, PAGE_SIZE));
+        }
+    }
+
+    private void compare(int size, String query, Supplier<List<Item>> likeSearch, Supplier<List<Item>> indexSearch) {
+        long likeNanos = measure(likeSearch);
+        long indexNanos = measure(indexSearch);
+        log.info("Поиск \"{}\" среди {} вещей: LIKE {} мкс, индекс {} мкс", query, size, likeNanos / 1000, indexNanos / 1000);
+
+        // LIKE просматривает весь каталог и дорожает вместе с ним, индекс читает только списки вещей с триграммами запроса
+        assertTrue(indexNanos * (size / SMALLEST_CATALOG) < likeNanos, "запрос: " + query + ", вещей: " + size
+                + ", индекс: " + indexNanos / 1000 + " мкс, LIKE: " + likeNanos / 1000 + " мкс");
+    }
+
+    /**
+     * Вставляет вещи до размера size и добавляет их в индекс. Перфоратором названа каждая стотысячная вещь:
+     * совпадений меньше страницы, поэтому LIKE просматривает всю таблицу, как при редком запросе.
+     */
+    private void growCatalog(int size) {
+        long lastId = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM items", Long.class);
+        for (int from = catalogSize; from < size; from += INSERT_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = from; i < Math.min(from + INSERT_BATCH_SIZE, size); i++) {
+                String noun = i % RARE_ITEM_EVERY == 0 ? "Перфоратор" : NOUNS[i % NOUNS.length];
+                rows.add(new Object[]{noun + " №" + i, "Описание: " + ADJECTIVES[i % ADJECTIVES.length] + " "
+                        + noun.toLowerCase(), owner.getId()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, true, ?)", rows);
+        }
+        jdbcTemplate.query("SELECT id, name, description FROM items WHERE owner_id = ? AND id > ? ORDER BY id",
+                resultSet -> {
+                    index.index(new Item(resultSet.getLong("id"), resultSet.getString("name"),
+                            resultSet.getString("description"), true, owner, null));
+                }, owner.getId(), lastId);
+        catalogSize = size;
+        assertEquals(size, index.size());
+    }
+
+    /**
+     * Среднее время вызова за секунду повторов после прогрева.
+     */
+    private static long measure(Supplier<List<Item>> search) {
+        for (int i = 0; i < 3; i++) {
+            search.get();
+        }
+        int calls = 0;
+        long startedAt = System.nanoTime();
+        long elapsed;
+        do {
+            search.get();
+            calls++;
+            elapsed = System.nanoTime() - startedAt;
+        } while (elapsed < MEASURE_NANOS);
+        return elapsed / calls;
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
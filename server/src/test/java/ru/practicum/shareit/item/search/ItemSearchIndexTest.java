@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository);
+        owner = new User(1L, "Владелец", "owner@example.com");
+    }
+
+    @Test
+    void testSearchMatchesSubstringIgnoringCase() {
+        index.index(new Item(1L, "Дрель", "Простая дрель", true, owner, null));
+        index.index(new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null));
+        index.index(new Item(3L, "Аккумулятор", "Запасной", true, owner, null));
+        assertEquals(List.of(1L), index.findIds("дРеЛ", 0, 10));
+        assertEquals(List.of(2L, 3L), index.findIds("аккум", 0, 10));
+        assertEquals(List.of(2L), index.findIds("ная отв", 0, 10));
+        assertTrue(index.findIds("ная  отв", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testSearchMatchesShortFragments() {
+        index.index(new Item(1L, "Дрель", "Простая дрель", true, owner, null));
+        index.index(new Item(2L, "Akkumulator", "AA", true, owner, null));
+        index.index(new Item(3L, "Ящик", "Для инструментов", true, owner, null));
+        assertEquals(List.of(1L), index.findIds("ДР", 0, 10));
+        assertEquals(List.of(2L), index.findIds("a", 0, 10));
+        assertEquals(List.of(2L), index.findIds("aa", 0, 10));
+        assertEquals(List.of(2L), index.findIds("AKKUM", 0, 10));
+        assertEquals(List.of(1L, 3L), index.findIds("я", 0, 10));
+        assertEquals(List.of(3L), index.findIds("я", 1, 10));
+    }
+
+    @Test
+    void testShortQueryPagesComeFromItsPostingList() {
+        for (long id = 1; id <= 2000; id++) {
+            index.index(new Item(id, id % 2 == 0 ? "Дрель " + id : "Лобзик " + id, "Описание", true, owner, null));
+        }
+        assertEquals(List.of(2L, 4L, 6L), index.findIds("д", 0, 3));
+        assertEquals(List.of(8L, 10L, 12L), index.findIds("д", 3, 3));
+        assertEquals(List.of(1002L, 1004L), index.findIdsAfter("др", 1000L, 2));
+        assertEquals(List.of(1L, 3L), index.findIds("ло", 0, 2));
+        assertEquals(2000, index.findIds("о", 0, 3000).size());
+        assertTrue(index.findIds("дл", 0, 10).isEmpty());
+
+        index.remove(2L);
+        index.index(new Item(4L, "Лобзик 4", "Описание", true, owner, null));
+        assertEquals(List.of(6L, 8L), index.findIds("д", 0, 2));
+        assertEquals(List.of(1L, 3L, 4L), index.findIds("ло", 0, 3));
+    }
+
+    @Test
+    void testSearchSkipsUnavailableAndRemovedItems() {
+        Item item = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        index.index(item);
+        index.index(new Item(2L, "Дрель ударная", "Мощная", false, owner, null));
+        assertEquals(List.of(1L), index.findIds("дрель", 0, 10));
+        item.setAvailable(false);
+        index.index(item);
+        assertTrue(index.findIds("дрель", 0, 10).isEmpty());
+        item.setAvailable(true);
+        index.index(item);
+        index.remove(1L);
+        assertTrue(index.findIds("дрель", 0, 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testSearchReturnsIdOrderedPages() {
+        for (long id = 10; id > 0; id--) {
+            index.index(new Item(id, "Дрель " + id, "Описание", true, owner, null));
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.findIds("дрель", 0, 4));
+        assertEquals(List.of(5L, 6L, 7L, 8L), index.findIds("дрель", 4, 4));
+        assertEquals(List.of(9L, 10L), index.findIds("дрель", 8, 4));
+    }
+
+    @Test
+    void testWarmUpIndexesRepositoryContents() {
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(new Item(1L, "Дрель", "Простая", true, owner, null))));
+        index.warmUp();
+        assertEquals(List.of(1L), index.findIds("прост", 0, 10));
+    }
+
+    @Test
+    void testWarmUpDoesNotOverwriteItemsChangedMeanwhile() {
+        when(itemRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            index.index(new Item(1L, "Дрель ударная", "Новое описание", true, owner, null));
+            index.remove(2L);
+            return new PageImpl<>(List.of(
+                    new Item(1L, "Дрель", "Старое описание", true, owner, null),
+                    new Item(2L, "Пила", "Удаленная", true, owner, null),
+                    new Item(3L, "Молоток", "Без изменений", true, owner, null)));
+        });
+        index.warmUp();
+        assertEquals(List.of(1L), index.findIds("новое", 0, 10));
+        assertTrue(index.findIds("старое", 0, 10).isEmpty());
+        assertTrue(index.findIds("пила", 0, 10).isEmpty());
+        assertEquals(List.of(3L), index.findIds("молот", 0, 10));
+        index.index(new Item(3L, "Молоток", "Изменен после построения", true, owner, null));
+        assertEquals(List.of(3L), index.findIds("после", 0, 10));
+    }
+}
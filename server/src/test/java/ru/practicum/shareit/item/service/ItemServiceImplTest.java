@@ -19,6 +19,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -50,6 +51,9 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -161,16 +165,21 @@ class ItemServiceImplTest {
 
     @Test
     void testGetItem() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(commentRepository.findByItemId(anyLong())).thenReturn(List.of());
+        when(itemRepository.findItemWithBookings(anyLong(), anyLong(), any(LocalDateTime.class), eq(BookingStatus.APPROVED)))
+                .thenReturn(List.<Object[]>of(new Object[]{item, 3L, 2L, null, null}));
+        when(commentRepository.findWithAuthorByItemId(anyLong())).thenReturn(List.of());
         ItemDto result = itemService.getItem(1L, 1L);
         assertNotNull(result);
         assertEquals(item.getName(), result.getName());
+        assertEquals(3L, result.getLastBooking().getId());
+        assertEquals(2L, result.getLastBooking().getBookerId());
+        assertNull(result.getNextBooking());
     }
 
     @Test
     void testGetItem_NotFound() {
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findItemWithBookings(anyLong(), anyLong(), any(LocalDateTime.class), any(BookingStatus.class)))
+                .thenReturn(List.of());
         Exception exception = assertThrows(NotFoundException.class, () -> {
             itemService.getItem(1L, 1L);
         });
@@ -198,7 +207,7 @@ class ItemServiceImplTest {
     @Test
     void testSearchItems() {
         List<Item> items = List.of(item);
-        when(itemRepository.search(anyString(), any(Pageable.class))).thenReturn(new PageImpl<>(items));
+        when(itemSearchEngine.search("Item", 0, 10)).thenReturn(items);
         List<ItemDto> result = itemService.searchItems("Item", 0, 10);
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -207,7 +216,7 @@ class ItemServiceImplTest {
 
     @Test
     void testSearchItems_Empty() {
-        when(itemRepository.search(anyString(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        when(itemSearchEngine.search("Item", 0, 10)).thenReturn(List.of());
         List<ItemDto> result = itemService.searchItems("Item", 0, 10);
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -218,6 +227,7 @@ class ItemServiceImplTest {
         doNothing().when(itemRepository).deleteById(anyLong());
         itemService.deleteItem(1L);
         verify(itemRepository, times(1)).deleteById(anyLong());
+        verify(itemSearchEngine, times(1)).remove(1L);
     }
 
     @Test
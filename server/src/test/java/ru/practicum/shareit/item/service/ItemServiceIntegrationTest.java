@@ -17,6 +17,7 @@ import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.SqlStatementCounter;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -78,4 +79,96 @@ public class ItemServiceIntegrationTest {
         assertThat(items.get(0).getName(), oneOf(itemDto1.getName(), itemDto2.getName()));
         assertThat(items.get(1).getName(), oneOf(itemDto1.getName(), itemDto2.getName()));
     }
+
+    @Test
+    void testSearchItemsIntegration() {
+        User user = userRepository.save(new User(null, "Петр Петров", "petr.petrov@example.com"));
+        ItemDto drill = itemService.addItem(user.getId(), new ItemDto(null, "Дрель", "Простая дрель", true, null, null, null, null, null));
+        itemService.addItem(user.getId(), new ItemDto(null, "Дрель ударная", "Мощная дрель", false, null, null, null, null, null));
+        ItemDto screwdriver = itemService.addItem(user.getId(), new ItemDto(null, "Отвертка", "Аккумуляторная дрель-отвертка", true, null, null, null, null, null));
+        List<ItemDto> items = itemService.searchItems("дрель", 0, 10);
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getId(), equalTo(drill.getId()));
+        assertThat(items.get(1).getId(), equalTo(screwdriver.getId()));
+        assertThat(itemService.searchItems("дрель", 1, 1).get(0).getId(), equalTo(screwdriver.getId()));
+    }
+
+    @Test
+    void testGetItemForOwnerRunsTwoQueries() {
+        User owner = userRepository.save(new User(null, "Олег Олегов", "oleg.olegov@example.com"));
+        User booker = userRepository.save(new User(null, "Анна Андреева", "anna.andreeva@example.com"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker, BookingStatus.APPROVED));
+        Booking last = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.minusDays(1), now.minusHours(1), item, booker, BookingStatus.REJECTED));
+        Booking next = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item, booker, BookingStatus.APPROVED));
+        commentRepository.save(new Comment(null, "Отличная дрель", item, booker, now));
+        commentRepository.save(new Comment(null, "Рекомендую", item, owner, now));
+        em.flush();
+        em.clear();
+        SqlStatementCounter counter = new SqlStatementCounter(em.getEntityManagerFactory());
+        ItemDto ownerView = itemService.getItem(item.getId(), owner.getId());
+        assertThat(counter.count(), equalTo(2L));
+        assertThat(ownerView.getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(ownerView.getLastBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(ownerView.getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(ownerView.getComments(), hasSize(2));
+        assertThat(ownerView.getComments().get(0).getAuthorName(), oneOf(owner.getName(), booker.getName()));
+        em.clear();
+        counter.reset();
+        ItemDto bookerView = itemService.getItem(item.getId(), booker.getId());
+        assertThat(counter.count(), equalTo(2L));
+        assertThat(bookerView.getLastBooking(), nullValue());
+        assertThat(bookerView.getNextBooking(), nullValue());
+        assertThat(bookerView.getComments(), hasSize(2));
+    }
+
+    @Test
+    void testGetItemsPicksOneLastAndNextBookingPerItem() {
+        User owner = userRepository.save(new User(null, "Игорь Игорев", "igor.igorev@example.com"));
+        User booker = userRepository.save(new User(null, "Ольга Ольгина", "olga.olgina@example.com"));
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null));
+        Item saw = itemRepository.save(new Item(null, "Пила", "Ручная пила", true, owner, null));
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), drill, booker, BookingStatus.APPROVED));
+        Booking drillLast = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), drill, booker, BookingStatus.APPROVED));
+        Booking drillNext = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), drill, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), drill, booker, BookingStatus.APPROVED));
+        Booking sawLast = bookingRepository.save(new Booking(null, now.minusDays(10), now.minusDays(9), saw, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), saw, booker, BookingStatus.REJECTED));
+        commentRepository.save(new Comment(null, "Отличная дрель", drill, booker, now));
+        List<ItemDto> items = itemService.getItems(owner.getId(), 0, 10);
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getLastBooking().getId(), equalTo(drillLast.getId()));
+        assertThat(items.get(0).getNextBooking().getId(), equalTo(drillNext.getId()));
+        assertThat(items.get(0).getComments(), hasSize(1));
+        assertThat(items.get(1).getLastBooking().getId(), equalTo(sawLast.getId()));
+        assertThat(items.get(1).getNextBooking(), nullValue());
+        assertThat(items.get(1).getComments(), empty());
+    }
+
+    @Test
+    void testGetItemAndGetItemsBreakBookingTiesTheSameWay() {
+        User owner = userRepository.save(new User(null, "Кирилл Кириллов", "kirill.kirillov@example.com"));
+        User booker = userRepository.save(new User(null, "Лидия Лидина", "lidia.lidina@example.com"));
+        Item item = itemRepository.save(new Item(null, "Предмет", "Описание предмета", true, owner, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        // пересекающиеся активные бронирования база не пропустит, а бронирования нулевой длины
+        // с одинаковыми датами не пересекаются, но дают одинаковые окончание и начало
+        Booking firstLast = bookingRepository.save(new Booking(null, now.minusDays(1), now.minusDays(1), item, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.minusDays(1), now.minusDays(1), item, booker, BookingStatus.APPROVED));
+        Booking firstNext = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(1), item, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(1), item, booker, BookingStatus.APPROVED));
+        em.flush();
+        em.clear();
+
+        ItemDto single = itemService.getItem(item.getId(), owner.getId());
+        ItemDto listed = itemService.getItems(owner.getId(), 0, 10).get(0);
+        assertThat(single.getLastBooking().getId(), equalTo(firstLast.getId()));
+        assertThat(single.getNextBooking().getId(), equalTo(firstNext.getId()));
+        assertThat(listed.getLastBooking().getId(), equalTo(firstLast.getId()));
+        assertThat(listed.getNextBooking().getId(), equalTo(firstNext.getId()));
+    }
 }
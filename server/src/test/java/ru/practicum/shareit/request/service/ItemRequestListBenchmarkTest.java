@@ -0,0 +1,161 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает список чужих запросов вещей, собранный одним запросом вещей на страницу, с прежним путем,
+ * когда вещи загружались отдельным запросом на каждый запрос страницы: число SQL-запросов и время ответа
+ * на страницы из 10, 100 и 1000 запросов.
+ */
+@Tag("perf")
+@Slf4j
+@SpringBootTest(
+        // журнал SQL и транзакций на каждый вызов искажает замер
+        properties = {"db.name=test", "spring.jpa.show-sql=false", "logging.level.org.springframework.transaction=INFO",
+                "logging.level.org.springframework.orm.jpa=INFO", "logging.level.com.zaxxer.hikari=INFO"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemRequestListBenchmarkTest {
+
+    private static final int REQUESTS = 1000;
+    private static final int REQUESTORS = 10;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    private final ItemRequestService itemRequestService;
+    private final ItemRequestMapper itemRequestMapper;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<ItemRequest> requests = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private User viewer;
+
+    @BeforeAll
+    void createRequests() {
+        viewer = userRepository.save(new User(null, "Зритель", "requests.benchmark.viewer@example.com"));
+        User owner = userRepository.save(new User(null, "Владелец", "requests.benchmark.owner@example.com"));
+        users.add(viewer);
+        users.add(owner);
+        for (int i = 0; i < REQUESTORS; i++) {
+            users.add(userRepository.save(new User(null, "Автор " + i, "requests.benchmark" + i + "@example.com")));
+        }
+        LocalDateTime created = LocalDateTime.now();
+        for (int i = 0; i < REQUESTS; i++) {
+            User requestor = users.get(2 + i % REQUESTORS);
+            ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "Нужна вещь " + i, requestor, created.minusMinutes(i), new ArrayList<>()));
+            requests.add(request);
+            // на каждый второй запрос откликнулись двумя вещами
+            for (int j = 0; j <= i % 2; j++) {
+                items.add(itemRepository.save(new Item(null, "Вещь " + i + "-" + j, "Ответ на запрос " + i, true, owner, request)));
+            }
+        }
+    }
+
+    @AfterAll
+    void deleteRequests() {
+        itemRepository.deleteAll(items);
+        itemRequestRepository.deleteAll(requests);
+        userRepository.deleteAll(users);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void testBatchedItemsAreFasterThanQueryPerRequest(int size) {
+        SqlStatementCounter counter = new SqlStatementCounter(entityManagerFactory);
+        List<ItemRequestDto> perRequest = queryPerRequest(size);
+        long perRequestQueries = counter.count();
+        counter.reset();
+        List<ItemRequestDto> batched = itemRequestService.getAllRequests(viewer.getId(), 0, size);
+        long batchedQueries = counter.count();
+        assertEquals(size, batched.size());
+        assertEquals(perRequest, batched);
+
+        long perRequestNanos = measure(() -> queryPerRequest(size));
+        long batchedNanos = measure(() -> itemRequestService.getAllRequests(viewer.getId(), 0, size));
+        log.info("Страница из {} запросов: по запросу вещей на каждый — {} SQL, {} мкс; одним запросом — {} SQL, {} мкс",
+                size, perRequestQueries, perRequestNanos / 1000, batchedQueries, batchedNanos / 1000);
+
+        // проверка пользователя, число его запросов, страница запросов и вещи страницы
+        assertEquals(4, batchedQueries);
+        assertEquals(3 + size, perRequestQueries);
+        assertTrue(batchedNanos < perRequestNanos,
+                "страница: " + size + ", одним запросом: " + batchedNanos / 1000 + " мкс, по запросу на каждый: "
+                        + perRequestNanos / 1000 + " мкс");
+    }
+
+    /**
+     * Прежний путь getAllRequests: вещи каждого запроса страницы загружаются отдельным SQL-запросом.
+     */
+    private List<ItemRequestDto> queryPerRequest(int size) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            userRepository.existsById(viewer.getId());
+            itemRequestRepository.findAmountOfRequests(viewer.getId());
+            List<ItemRequest> page = itemRequestRepository.findAllInPage(viewer.getId(),
+                    PageRequest.of(0, size, Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"))));
+            return page.stream()
+                    .map(request -> itemRequestMapper.toItemRequestDto(request,
+                            itemRepository.findByRequestIdIn(List.of(request.getId())).stream()
+                                    .map(ItemMapper::toItemDto)
+                                    .collect(Collectors.toList())))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    /**
+     * Среднее время вызова за секунду повторов после прогрева.
+     */
+    private static long measure(Supplier<List<ItemRequestDto>> listing) {
+        for (int i = 0; i < 3; i++) {
+            listing.get();
+        }
+        int calls = 0;
+        long startedAt = System.nanoTime();
+        long elapsed;
+        do {
+            listing.get();
+            calls++;
+            elapsed = System.nanoTime() - startedAt;
+        } while (elapsed < MEASURE_NANOS);
+        return elapsed / calls;
+    }
+}
@@ -96,13 +96,13 @@ class ItemRequestServiceImplTest {
     void getRequest_Valid() {
         when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
-        when(itemRepository.findByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
         when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class), anyList())).thenReturn(itemRequestDto);
         ItemRequestDto result = itemRequestService.getRequest(1L, 1L);
         assertNotNull(result);
         assertEquals(itemRequestDto, result);
         verify(itemRequestRepository, times(1)).findById(1L);
-        verify(itemRepository, times(1)).findByRequestId(1L);
+        verify(itemRepository, times(1)).findByRequestIdIn(List.of(1L));
     }
 
     @Test
@@ -130,7 +130,7 @@ class ItemRequestServiceImplTest {
     void getUserRequests_Valid() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(itemRequestRepository.findAllByRequestorId(1L)).thenReturn(List.of(itemRequest));
-        when(itemRepository.findByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
         when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class), anyList())).thenReturn(itemRequestDto);
 
         List<ItemRequestDto> result = itemRequestService.getUserRequests(1L);
@@ -139,7 +139,7 @@ class ItemRequestServiceImplTest {
         assertEquals(1, result.size());
         assertEquals(itemRequestDto, result.get(0));
         verify(itemRequestRepository, times(1)).findAllByRequestorId(1L);
-        verify(itemRepository, times(1)).findByRequestId(1L); // Ожидаемое взаимодействие
+        verify(itemRepository, times(1)).findByRequestIdIn(List.of(1L)); // Ожидаемое взаимодействие
     }
 
     @Test
@@ -157,14 +157,14 @@ class ItemRequestServiceImplTest {
         when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRequestRepository.findAmountOfRequests(1L)).thenReturn(10);
         when(itemRequestRepository.findAllInPage(eq(1L), any(PageRequest.class))).thenReturn(List.of(itemRequest));
-        when(itemRepository.findByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
         when(itemRequestMapper.toItemRequestDto(any(ItemRequest.class), anyList())).thenReturn(itemRequestDto);
         List<ItemRequestDto> result = itemRequestService.getAllRequests(1L, 0, 10);
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(itemRequestDto, result.get(0));
         verify(itemRequestRepository, times(1)).findAllInPage(eq(1L), any(PageRequest.class));
-        verify(itemRepository, times(1)).findByRequestId(1L);
+        verify(itemRepository, times(1)).findByRequestIdIn(List.of(1L));
     }
 
     @Test
@@ -2,6 +2,8 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.SqlStatementCounter;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
@@ -66,4 +69,42 @@ public class ItemRequestServiceIntegrationTest {
         assertThat(requestDto2.getItems(), hasSize(1));
         assertThat(requestDto2.getItems().get(0).getName(), equalTo("Предмет2"));
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void testGetAllRequestsQueryCountDoesNotGrowWithPageSize(int size) {
+        User user = userRepository.save(new User(null, "User", "user@example.com"));
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        LocalDateTime created = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            User requester = userRepository.save(new User(null, "Requester " + i, "requester" + i + "@example.com"));
+            ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "описание " + i, requester, created.minusMinutes(i), new ArrayList<>()));
+            itemRepository.save(new Item(null, "Предмет " + i, "Описание предмета " + i, true, owner, request));
+        }
+        em.flush();
+        em.clear();
+        SqlStatementCounter counter = new SqlStatementCounter(em.getEntityManagerFactory());
+        List<ItemRequestDto> page = itemRequestService.getAllRequests(user.getId(), 0, size);
+        assertThat(page, hasSize(size));
+        assertThat(page.get(size - 1).getItems(), hasSize(1));
+        assertThat(counter.count(), equalTo(4L));
+    }
+
+    @Test
+    void testGetRequestLoadsItemsWithoutOwners() {
+        User requester = userRepository.save(new User(null, "Requester", "requester@example.com"));
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "описание", requester, LocalDateTime.now(), new ArrayList<>()));
+        itemRepository.save(new Item(null, "Предмет1", "Описание предмета 1", true, owner, request));
+        itemRepository.save(new Item(null, "Предмет2", "Описание предмета 2", true, owner, request));
+        em.flush();
+        em.clear();
+        SqlStatementCounter counter = new SqlStatementCounter(em.getEntityManagerFactory());
+        ItemRequestDto requestDto = itemRequestService.getRequest(request.getId(), owner.getId());
+        assertThat(counter.count(), equalTo(3L));
+        assertThat(requestDto.getRequestorId(), equalTo(requester.getId()));
+        assertThat(requestDto.getItems(), hasSize(2));
+        assertThat(requestDto.getItems().get(0).getOwner(), equalTo(owner.getId()));
+        assertThat(requestDto.getItems().get(0).getRequestId(), equalTo(request.getId()));
+    }
 }
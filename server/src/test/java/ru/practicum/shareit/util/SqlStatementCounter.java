@@ -0,0 +1,62 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Считает SQL-запросы, подготовленные Hibernate, для проверки числа обращений к базе.
+ * Сам текст запросов доступен, если тест подключил {@link Recorder} свойством
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlStatementCounter {
+    public static final String RECORDER = "ru.practicum.shareit.util.SqlStatementCounter$Recorder";
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        reset();
+    }
+
+    public void reset() {
+        statistics.clear();
+        STATEMENTS.clear();
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    public List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public long queryPlanCacheHits() {
+        return statistics.getQueryPlanCacheHitCount();
+    }
+
+    public long queryPlanCacheMisses() {
+        return statistics.getQueryPlanCacheMissCount();
+    }
+
+    /**
+     * Запоминает SQL, который Hibernate отправляет в базу, чтобы тесты могли разобрать план запроса.
+     */
+    public static class Recorder implements StatementInspector {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}